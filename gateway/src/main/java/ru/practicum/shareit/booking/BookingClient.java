@@ -6,11 +6,15 @@ import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
 
+import java.util.List;
+
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
@@ -25,20 +29,43 @@ public class BookingClient extends BaseClient {
         );
     }
 
-    public ResponseEntity<Object> getBookings(Long userId, BookingState state, Integer from, Integer size) {
-        String path = "?state=" + state.name() + "&from=" + from;
-        if (size != null) {
-            path += "&size=" + size;
-        }
-        return get(path, userId, null);
+    public ResponseEntity<Object> getBookings(Long userId, BookingState state, Integer from, Integer size,
+                                              String cursor, Boolean archived) {
+        return get(listPath("", state, from, size, cursor) + archivedParam(archived), userId, null);
     }
 
-    public ResponseEntity<Object> getBookingsOwner(Long userId, BookingState state, Integer from, Integer size) {
-        String path = "/owner?state=" + state.name() + "&from=" + from;
+    public ResponseEntity<Object> getBookingsOwner(Long userId, BookingState state, Integer from, Integer size,
+                                                   String cursor, Boolean archived) {
+        return get(listPath("/owner", state, from, size, cursor) + archivedParam(archived), userId, null);
+    }
+
+    public ResponseEntity<Object> getBookingsOwnerSummary(Long userId) {
+        return get("/owner/summary", userId);
+    }
+
+    public ResponseEntity<StreamingResponseBody> streamBookings(Long userId, BookingState state, Integer from,
+                                                                Integer size) {
+        return stream(listPath("", state, from, size, null), userId);
+    }
+
+    public ResponseEntity<StreamingResponseBody> streamBookingsOwner(Long userId, BookingState state, Integer from,
+                                                                     Integer size) {
+        return stream(listPath("/owner", state, from, size, null), userId);
+    }
+
+    private String listPath(String prefix, BookingState state, Integer from, Integer size, String cursor) {
+        String path = prefix + "?state=" + state.name() + "&from=" + from;
         if (size != null) {
             path += "&size=" + size;
         }
-        return get(path, userId, null);
+        if (cursor != null) {
+            path += "&cursor=" + cursor;
+        }
+        return path;
+    }
+
+    private String archivedParam(Boolean archived) {
+        return Boolean.TRUE.equals(archived) ? "&archived=true" : "";
     }
 
 
@@ -50,6 +77,10 @@ public class BookingClient extends BaseClient {
         return get("/" + bookingId, userId);
     }
 
+    public ResponseEntity<Object> updateAll(Long userId, List<BookingDecisionDto> decisions) {
+        return patch("/batch", userId, decisions);
+    }
+
     public ResponseEntity<Object> update(Long bookingId, Long userId, Boolean approved) {
         String path = "/" + bookingId + "?approved=" + approved;
         return patch(path, userId, null, null);
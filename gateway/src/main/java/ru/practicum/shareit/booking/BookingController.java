@@ -3,15 +3,21 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -20,6 +26,7 @@ import javax.validation.constraints.PositiveOrZero;
 @Validated
 public class BookingController {
     private static final String USER_ID = "X-Sharer-User-Id";
+    private static final int MAX_DECISIONS = 500;
     private final BookingClient bookingClient;
 
     @GetMapping
@@ -27,11 +34,14 @@ public class BookingController {
                                               @RequestParam(name = "state", defaultValue = "all") String stateParam,
                                               @PositiveOrZero @RequestParam(name = "from", defaultValue = "0")
                                               Integer from,
-                                              @RequestParam(required = false) Integer size) {
+                                              @RequestParam(required = false) Integer size,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(defaultValue = "false") Boolean archived) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getBookings(userId, state, from, size);
+        log.info("Get booking with state {}, userId={}, from={}, size={}, cursor={}, archived={}", stateParam, userId,
+                from, size, cursor, archived);
+        return bookingClient.getBookings(userId, state, from, size, cursor, archived);
     }
 
     @GetMapping("/owner")
@@ -39,12 +49,47 @@ public class BookingController {
                                                    String stateParam,
                                                    @RequestHeader(USER_ID) Long userId,
                                                    @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                                   @RequestParam(required = false) Integer size) {
+                                                   @RequestParam(required = false) Integer size,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(defaultValue = "false") Boolean archived) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
         log.info("Получен GET-запрос к эндпоинту: '/bookings/owner' на получение " +
                 "списка всех бронирований вещей пользователя с ID={} с параметром STATE={}", userId, state);
-        return bookingClient.getBookingsOwner(userId, state, from, size);
+        return bookingClient.getBookingsOwner(userId, state, from, size, cursor, archived);
+    }
+
+    @GetMapping("/owner/summary")
+    public ResponseEntity<Object> getBookingsOwnerSummary(@RequestHeader(USER_ID) Long userId) {
+        log.info("Get owner booking summary, userId={}", userId);
+        return bookingClient.getBookingsOwnerSummary(userId);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamBookings(@RequestHeader(USER_ID) Long userId,
+                                                                @RequestParam(name = "state", defaultValue = "all")
+                                                                String stateParam,
+                                                                @PositiveOrZero @RequestParam(defaultValue = "0")
+                                                                Integer from,
+                                                                @RequestParam(required = false) Integer size) {
+        BookingState state = BookingState.from(stateParam)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
+        log.info("Stream bookings with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
+        return bookingClient.streamBookings(userId, state, from, size);
+    }
+
+    @GetMapping(path = "/owner", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamBookingsOwner(@RequestHeader(USER_ID) Long userId,
+                                                                     @RequestParam(name = "state", defaultValue = "all")
+                                                                     String stateParam,
+                                                                     @PositiveOrZero
+                                                                     @RequestParam(defaultValue = "0") Integer from,
+                                                                     @RequestParam(required = false) Integer size) {
+        BookingState state = BookingState.from(stateParam)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
+        log.info("Stream owner bookings with state {}, userId={}, from={}, size={}", stateParam, userId, from,
+                size);
+        return bookingClient.streamBookingsOwner(userId, state, from, size);
     }
 
     @PostMapping
@@ -61,6 +106,16 @@ public class BookingController {
         return bookingClient.getBooking(userId, bookingId);
     }
 
+    @ResponseBody
+    @PatchMapping("/batch")
+    public ResponseEntity<Object> updateAll(@RequestHeader(USER_ID) Long userId,
+                                            @RequestBody @NotEmpty @Size(max = MAX_DECISIONS)
+                                            List<@Valid BookingDecisionDto> decisions) {
+        log.info("Получен PATCH-запрос к эндпоинту: '/bookings/batch' на обновление статусов {} бронирований",
+                decisions.size());
+        return bookingClient.updateAll(userId, decisions);
+    }
+
     @ResponseBody
     @PatchMapping("/{bookingId}")
     public ResponseEntity<Object> update(@PathVariable Long bookingId,
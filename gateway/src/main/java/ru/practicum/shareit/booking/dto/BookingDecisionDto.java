@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.dto;
+
+import javax.validation.constraints.NotNull;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingDecisionDto {
+    @NotNull
+    private Long bookingId;
+    @NotNull
+    private Boolean approved;
+}
@@ -1,5 +1,8 @@
 package ru.practicum.shareit.client;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Map;
 
@@ -8,9 +11,14 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 public class BaseClient {
     protected final RestTemplate rest;
@@ -79,6 +87,70 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    protected ResponseEntity<StreamingResponseBody> stream(String path, @Nullable Long userId) {
+        ClientHttpResponse response;
+        try {
+            ClientHttpRequest request = rest.getRequestFactory()
+                    .createRequest(rest.getUriTemplateHandler().expand(path), HttpMethod.GET);
+            request.getHeaders().addAll(defaultHeaders(userId));
+            request.getHeaders().setAccept(List.of(MediaType.APPLICATION_NDJSON));
+            response = request.execute();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getRawStatusCode());
+            MediaType contentType = response.getHeaders().getContentType();
+            if (contentType != null) {
+                responseBuilder.contentType(contentType);
+            }
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                byte[] body = StreamUtils.copyToByteArray(response.getBody());
+                response.close();
+                return responseBuilder.body(out -> out.write(body));
+            }
+            return responseBuilder.body(out -> {
+                try (response; InputStream in = response.getBody()) {
+                    byte[] buffer = new byte[StreamUtils.BUFFER_SIZE];
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        out.write(buffer, 0, read);
+                        if (in.available() == 0) {
+                            out.flush();
+                        }
+                    }
+                }
+            });
+        } catch (IOException e) {
+            response.close();
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    protected ResponseEntity<Object> upload(String path, Long userId, MediaType contentType, InputStream body) {
+        try {
+            ClientHttpRequest request = rest.getRequestFactory()
+                    .createRequest(rest.getUriTemplateHandler().expand(path), HttpMethod.POST);
+            request.getHeaders().addAll(defaultHeaders(userId));
+            request.getHeaders().setContentType(contentType);
+            if (request instanceof StreamingHttpOutputMessage) {
+                ((StreamingHttpOutputMessage) request).setBody(out -> StreamUtils.copy(body, out));
+            } else {
+                StreamUtils.copy(body, request.getBody());
+            }
+            try (ClientHttpResponse response = request.execute()) {
+                ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getRawStatusCode());
+                MediaType responseType = response.getHeaders().getContentType();
+                if (responseType != null) {
+                    responseBuilder.contentType(responseType);
+                }
+                return responseBuilder.body(StreamUtils.copyToByteArray(response.getBody()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
 
@@ -3,13 +3,20 @@ package ru.practicum.shareit.item;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchSort;
+
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.Map;
 
 @Service
 public class ItemClient extends BaseClient {
@@ -20,7 +27,11 @@ public class ItemClient extends BaseClient {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
+                        .requestFactory(() -> {
+                            HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory();
+                            factory.setBufferRequestBody(false);
+                            return factory;
+                        })
                         .build()
         );
     }
@@ -29,16 +40,28 @@ public class ItemClient extends BaseClient {
         return post("", userId, itemDto);
     }
 
+    public ResponseEntity<Object> importItems(Long userId, MediaType contentType, InputStream body) {
+        return upload("/import", userId, contentType, body);
+    }
+
     public ResponseEntity<Object> getItemById(Long userId, Long itemId) {
         return get("/" + itemId, userId);
     }
 
+    public ResponseEntity<Object> getItemAvailability(Long userId, Long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, parameters);
+    }
+
     public ResponseEntity<Object> getItemsByOwner(Long userId, Integer from, Integer size) {
-        String path = "?from=" + from;
-        if (size != null) {
-            path += "&size=" + size;
-        }
-        return get(path, userId);
+        return get(pagedPath("?", from, size), userId);
+    }
+
+    public ResponseEntity<StreamingResponseBody> streamItemsByOwner(Long userId, Integer from, Integer size) {
+        return stream(pagedPath("?", from, size), userId);
     }
 
     public ResponseEntity<Object> update(ItemDto itemDto, Long itemId, Long userId) {
@@ -49,15 +72,36 @@ public class ItemClient extends BaseClient {
         return delete("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> getItemsBySearchQuery(String text, Integer from, Integer size) {
-        String path = "/search?text=" + text + "&from=" + from;
-        if (size != null) {
-            path += "&size=" + size;
-        }
-        return get(path);
+    public ResponseEntity<Object> getItemsBySearchQuery(String text, Integer from, Integer size, ItemSearchSort sort) {
+        return get(pagedPath("/search?text=" + text + "&sort=" + sort.name() + "&", from, size));
+    }
+
+    public ResponseEntity<Object> suggestNames(String prefix, Integer limit) {
+        return get("/suggest?prefix={prefix}&limit={limit}", null, Map.of("prefix", prefix, "limit", limit));
+    }
+
+    public ResponseEntity<StreamingResponseBody> streamItemsBySearchQuery(String text, Integer from, Integer size,
+                                                                          ItemSearchSort sort) {
+        return stream(pagedPath("/search?text=" + text + "&sort=" + sort.name() + "&", from, size), null);
     }
 
     public ResponseEntity<Object> createComment(CommentDto commentDto, Long itemId, Long userId) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
+
+    public ResponseEntity<Object> getComments(Long userId, Long itemId, String cursor, Integer size) {
+        if (cursor == null) {
+            return get("/" + itemId + "/comments?size={size}", userId, Map.of("size", size));
+        }
+        return get("/" + itemId + "/comments?size={size}&cursor={cursor}", userId,
+                Map.of("size", size, "cursor", cursor));
+    }
+
+    private String pagedPath(String prefix, Integer from, Integer size) {
+        String path = prefix + "from=" + from;
+        if (size != null) {
+            path += "&size=" + size;
+        }
+        return path;
+    }
 }
\ No newline at end of file
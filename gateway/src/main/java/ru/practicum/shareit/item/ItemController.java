@@ -2,15 +2,24 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchSort;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 
 @Controller
 @RequestMapping(path = "/items")
@@ -19,6 +28,8 @@ import javax.validation.constraints.PositiveOrZero;
 @Validated
 public class ItemController {
     private static final String USER_ID = "X-Sharer-User-Id";
+    private static final int MAX_SUGGESTIONS = 50;
+    private static final String TEXT_CSV = "text/csv";
     private final ItemClient itemClient;
 
 
@@ -30,6 +41,15 @@ public class ItemController {
         return itemClient.getItemsByOwner(ownerId, from, size);
     }
 
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamItemsByOwner(@RequestHeader(USER_ID) Long ownerId,
+                                                                    @PositiveOrZero
+                                                                    @RequestParam(defaultValue = "0") Integer from,
+                                                                    @RequestParam(required = false) Integer size) {
+        log.info("Получен GET-запрос к эндпоинту: '/items' на потоковую выгрузку вещей владельца с ID={}", ownerId);
+        return itemClient.streamItemsByOwner(ownerId, from, size);
+    }
+
     @PostMapping
     public ResponseEntity<Object> create(@RequestHeader(USER_ID) Long userId,
                                          @RequestBody @Valid ItemDto itemDto) {
@@ -37,6 +57,14 @@ public class ItemController {
         return itemClient.create(userId, itemDto);
     }
 
+    @PostMapping(path = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, TEXT_CSV})
+    public ResponseEntity<Object> importItems(@RequestHeader(USER_ID) Long userId,
+                                              @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                              InputStream body) {
+        log.info("Импорт вещей в формате {}, userId={}", contentType, userId);
+        return itemClient.importItems(userId, contentType, body);
+    }
+
     @GetMapping("/{itemId}")
     public ResponseEntity<Object> getItemById(@RequestHeader(USER_ID) Long userId,
                                               @PathVariable Long itemId) {
@@ -44,6 +72,17 @@ public class ItemController {
         return itemClient.getItemById(userId, itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getItemAvailability(@RequestHeader(USER_ID) Long userId,
+                                                      @PathVariable Long itemId,
+                                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                      LocalDateTime from,
+                                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                      LocalDateTime to) {
+        log.info("Запрос занятости вещи {} с {} по {}, userId={}", itemId, from, to, userId);
+        return itemClient.getItemAvailability(userId, itemId, from, to);
+    }
+
     @ResponseBody
     @PatchMapping("/{itemId}")
     public ResponseEntity<Object> update(@RequestBody ItemDto itemDto, @PathVariable Long itemId,
@@ -61,9 +100,37 @@ public class ItemController {
     @GetMapping("/search")
     public ResponseEntity<Object> getItemsBySearchQuery(@RequestParam String text,
                                                         @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                                        @RequestParam(required = false) Integer size) {
+                                                        @RequestParam(required = false) Integer size,
+                                                        @RequestParam(name = "sort", defaultValue = "name")
+                                                        String sortParam) {
+        ItemSearchSort sort = ItemSearchSort.from(sortParam)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown sort: " + sortParam));
         log.info("Получен GET-запрос к эндпоинту: '/items/search' на поиск вещи с текстом={}", text);
-        return itemClient.getItemsBySearchQuery(text, from, size);
+        return itemClient.getItemsBySearchQuery(text, from, size, sort);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> suggestNames(@RequestParam String prefix,
+                                               @Positive @Max(MAX_SUGGESTIONS) @RequestParam(defaultValue = "10")
+                                               Integer limit) {
+        log.info("Получен GET-запрос к эндпоинту: '/items/suggest' на получение подсказок по префиксу={}", prefix);
+        return itemClient.suggestNames(prefix, limit);
+    }
+
+    @GetMapping(path = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamItemsBySearchQuery(@RequestParam String text,
+                                                                          @PositiveOrZero
+                                                                          @RequestParam(defaultValue = "0")
+                                                                          Integer from,
+                                                                          @RequestParam(required = false)
+                                                                          Integer size,
+                                                                          @RequestParam(name = "sort",
+                                                                                  defaultValue = "name")
+                                                                          String sortParam) {
+        ItemSearchSort sort = ItemSearchSort.from(sortParam)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown sort: " + sortParam));
+        log.info("Получен GET-запрос к эндпоинту: '/items/search' на потоковый поиск вещи с текстом={}", text);
+        return itemClient.streamItemsBySearchQuery(text, from, size, sort);
     }
 
     @ResponseBody
@@ -75,4 +142,13 @@ public class ItemController {
                 " добавление отзыва пользователем с ID={}", userId);
         return itemClient.createComment(commentDto, itemId, userId);
     }
+
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<Object> getComments(@RequestHeader(USER_ID) Long userId, @PathVariable Long itemId,
+                                              @RequestParam(required = false) String cursor,
+                                              @Positive @RequestParam(defaultValue = "20") Integer size) {
+        log.info("Получен GET-запрос к эндпоинту: '/items/{}/comments' на получение отзывов о вещи, cursor={}, " +
+                "size={}", itemId, cursor, size);
+        return itemClient.getComments(userId, itemId, cursor, size);
+    }
 }
\ No newline at end of file
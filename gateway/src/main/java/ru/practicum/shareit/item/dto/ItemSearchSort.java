@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.dto;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+public enum ItemSearchSort {
+    NAME,
+    RELEVANCE;
+
+    public static Optional<ItemSearchSort> from(String stringSort) {
+        return Arrays.stream(values())
+                .filter(sort -> sort.name().equalsIgnoreCase(stringSort))
+                .findFirst();
+    }
+}
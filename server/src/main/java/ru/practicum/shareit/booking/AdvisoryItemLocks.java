@@ -0,0 +1,39 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+@Component
+@ConditionalOnProperty(name = "shareit.booking.locks", havingValue = "advisory")
+public class AdvisoryItemLocks implements ItemLocks {
+    private static final int LOCK_NAMESPACE = 0x5348;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public AdvisoryItemLocks(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public <T> T execute(Collection<Long> itemIds, Supplier<T> action) {
+        return transactionTemplate.execute(status -> {
+            itemIds.stream()
+                    .mapToInt(itemId -> Long.hashCode(itemId))
+                    .distinct()
+                    .sorted()
+                    .forEach(key -> jdbcTemplate.queryForList("select pg_advisory_xact_lock(?, ?)",
+                            LOCK_NAMESPACE, key));
+            return action.get();
+        });
+    }
+}
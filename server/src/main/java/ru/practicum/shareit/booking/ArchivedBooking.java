@@ -0,0 +1,38 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.user.User;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "bookings_archive")
+@NamedEntityGraph(name = ArchivedBooking.WITH_ITEM_AND_BOOKER, attributeNodes = {
+        @NamedAttributeNode("item"),
+        @NamedAttributeNode("booker")
+})
+public class ArchivedBooking {
+    public static final String WITH_ITEM_AND_BOOKER = "ArchivedBooking.withItemAndBooker";
+
+    @Id
+    private Long id;
+    @Column(name = "start_date")
+    private LocalDateTime start;
+    @Column(name = "end_date")
+    private LocalDateTime end;
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "item_id", referencedColumnName = "id")
+    private Item item;
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "booker_id", referencedColumnName = "id")
+    private User booker;
+    @Enumerated(EnumType.STRING)
+    private Status status;
+}
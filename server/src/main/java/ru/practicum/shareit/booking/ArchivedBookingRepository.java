@@ -0,0 +1,87 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookingShortView;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.dto.BookingView;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, Long> {
+    String BY_BOOKER = BookingRepository.VIEW_COLUMNS + "from ArchivedBooking" + BookingRepository.VIEW_JOINS +
+            "where b.booker.id = :userId";
+    String BY_OWNER = BookingRepository.VIEW_COLUMNS + "from ArchivedBooking" + BookingRepository.VIEW_JOINS +
+            "where i.owner.id = :userId";
+
+    @Query(BY_BOOKER + BookingRepository.NEWEST_FIRST)
+    Slice<BookingView> findByBookerId(@Param("userId") Long bookerId, Pageable pageable);
+
+    @Query(BY_OWNER + BookingRepository.NEWEST_FIRST)
+    Slice<BookingView> findByItemOwnerId(@Param("userId") Long ownerId, Pageable pageable);
+
+    @Query(BY_BOOKER + BookingRepository.WITH_STATUS + BookingRepository.NEWEST_FIRST)
+    Slice<BookingView> findByBookerIdAndStatus(@Param("userId") Long bookerId, @Param("status") Status status,
+                                               Pageable pageable);
+
+    @Query(BY_OWNER + BookingRepository.WITH_STATUS + BookingRepository.NEWEST_FIRST)
+    Slice<BookingView> findByItemOwnerIdAndStatus(@Param("userId") Long ownerId, @Param("status") Status status,
+                                                  Pageable pageable);
+
+    @Query(BY_BOOKER + BookingRepository.BEFORE_CURSOR)
+    List<BookingView> findByBookerIdBeforeCursor(@Param("userId") Long bookerId, @Param("start") LocalDateTime start,
+                                                 @Param("id") Long id, Pageable pageable);
+
+    @Query(BY_OWNER + BookingRepository.BEFORE_CURSOR)
+    List<BookingView> findByItemOwnerIdBeforeCursor(@Param("userId") Long ownerId,
+                                                    @Param("start") LocalDateTime start,
+                                                    @Param("id") Long id, Pageable pageable);
+
+    @Query(BY_BOOKER + BookingRepository.WITH_STATUS + BookingRepository.BEFORE_CURSOR)
+    List<BookingView> findByBookerIdAndStatusBeforeCursor(@Param("userId") Long bookerId,
+                                                          @Param("status") Status status,
+                                                          @Param("start") LocalDateTime start, @Param("id") Long id,
+                                                          Pageable pageable);
+
+    @Query(BY_OWNER + BookingRepository.WITH_STATUS + BookingRepository.BEFORE_CURSOR)
+    List<BookingView> findByItemOwnerIdAndStatusBeforeCursor(@Param("userId") Long ownerId,
+                                                             @Param("status") Status status,
+                                                             @Param("start") LocalDateTime start,
+                                                             @Param("id") Long id, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingSummaryDto(count(b), 0L, count(b), 0L, " +
+            "coalesce(sum(case when b.status = :waiting then 1 else 0 end), 0), " +
+            "coalesce(sum(case when b.status = :rejected then 1 else 0 end), 0)) " +
+            "from ArchivedBooking b join b.item i where i.owner.id = :ownerId")
+    BookingSummaryDto getSummaryByItemOwnerId(@Param("ownerId") Long ownerId, @Param("waiting") Status waiting,
+                                              @Param("rejected") Status rejected);
+
+    List<ArchivedBooking> findByItemIdAndStatusInAndStartIsBeforeAndEndIsAfterOrderByStartAsc(Long itemId,
+                                                                                              Collection<Status> statuses,
+                                                                                              LocalDateTime start,
+                                                                                              LocalDateTime end);
+
+    ArchivedBooking findFirstByItemIdAndEndBeforeOrderByEndDesc(Long itemId, LocalDateTime end);
+
+    @Query(value = "select t.id as id, t.item_id as itemId, t.booker_id as bookerId, " +
+            "t.start_date as startTime, t.end_date as endTime " +
+            "from (select b.id, b.item_id, b.booker_id, b.start_date, b.end_date, " +
+            "      row_number() over (partition by b.item_id order by b.end_date desc) as rn " +
+            "      from bookings_archive b " +
+            "      where b.item_id in (:itemIds)) t " +
+            "where t.rn = 1", nativeQuery = true)
+    List<BookingShortView> findLastByItemIds(@Param("itemIds") Collection<Long> itemIds);
+
+    @Override
+    @EntityGraph(ArchivedBooking.WITH_ITEM_AND_BOOKER)
+    Optional<ArchivedBooking> findById(Long id);
+
+    ArchivedBooking findFirstByItemIdAndBookerIdAndStatus(Long itemId, Long bookerId, Status status);
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.config.CacheConfig;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Slf4j
+@Component
+public class BookingArchiveJob {
+    private final BookingArchiver archiver;
+    private final Duration retention;
+    private final Cache itemDetailsCache;
+
+    @Autowired
+    public BookingArchiveJob(BookingArchiver archiver,
+                             @Value("${shareit.booking.archive.retention}") Duration retention,
+                             CacheManager cacheManager) {
+        this.archiver = archiver;
+        this.retention = retention;
+        this.itemDetailsCache = cacheManager.getCache(CacheConfig.ITEM_DETAILS);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.archive.interval}")
+    public void archive() {
+        long archived = archiver.archive(LocalDateTime.now().minus(retention));
+        if (archived > 0) {
+            itemDetailsCache.clear();
+            log.info("В архив перенесено {} бронирований, завершившихся более {} назад", archived, retention);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+
+public interface BookingArchiver {
+    long archive(LocalDateTime endedBefore);
+}
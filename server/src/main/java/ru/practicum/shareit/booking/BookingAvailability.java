@@ -0,0 +1,106 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.TimeIntervalDto;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+
+@Component
+public class BookingAvailability {
+    private final BookingRepository repository;
+    private final ArchivedBookingRepository archiveRepository;
+    private final Cache cache;
+    private final Duration horizon;
+    private final Duration retention;
+
+    @Autowired
+    public BookingAvailability(BookingRepository repository, ArchivedBookingRepository archiveRepository,
+                               CacheManager cacheManager,
+                               @Value("${shareit.booking.availability.horizon}") Duration horizon,
+                               @Value("${shareit.booking.archive.retention}") Duration retention) {
+        this.repository = repository;
+        this.archiveRepository = archiveRepository;
+        this.cache = cacheManager.getCache(CacheConfig.ITEM_AVAILABILITY);
+        this.horizon = horizon;
+        this.retention = retention;
+    }
+
+    public ItemAvailabilityDto get(Long itemId, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime windowStart = LocalDate.now().atStartOfDay();
+        LocalDateTime windowEnd = windowStart.plus(horizon);
+        if (cache == null || from.isBefore(windowStart) || to.isAfter(windowEnd)) {
+            return load(itemId, from, to);
+        }
+        ItemAvailabilityDto window = cache.get(itemId, () -> load(itemId, windowStart, windowEnd));
+        if (window.getFrom().isAfter(from) || window.getTo().isBefore(to)) {
+            cache.evict(itemId);
+            window = cache.get(itemId, () -> load(itemId, windowStart, windowEnd));
+        }
+        return toAvailability(itemId, from, to, window.getBusy());
+    }
+
+    public void evict(Long itemId) {
+        if (cache != null) {
+            cache.evict(itemId);
+        }
+    }
+
+    private ItemAvailabilityDto load(Long itemId, LocalDateTime from, LocalDateTime to) {
+        List<TimeIntervalDto> busy = repository.findByItemIdAndStatusInAndStartIsBeforeAndEndIsAfterOrderByStartAsc(
+                        itemId, BookingConflictIndex.BLOCKING_STATUSES, to, from).stream()
+                .map(booking -> new TimeIntervalDto(booking.getStart(), booking.getEnd()))
+                .collect(toList());
+        if (from.isBefore(LocalDateTime.now().minus(retention))) {
+            archiveRepository.findByItemIdAndStatusInAndStartIsBeforeAndEndIsAfterOrderByStartAsc(itemId,
+                            BookingConflictIndex.BLOCKING_STATUSES, to, from)
+                    .forEach(booking -> busy.add(new TimeIntervalDto(booking.getStart(), booking.getEnd())));
+            busy.sort(Comparator.comparing(TimeIntervalDto::getStart));
+        }
+        return toAvailability(itemId, from, to, busy);
+    }
+
+    private static ItemAvailabilityDto toAvailability(Long itemId, LocalDateTime from, LocalDateTime to,
+                                                      List<TimeIntervalDto> intervals) {
+        List<TimeIntervalDto> busy = new ArrayList<>();
+        for (TimeIntervalDto interval : intervals) {
+            if (!interval.getStart().isBefore(to) || !interval.getEnd().isAfter(from)) {
+                continue;
+            }
+            LocalDateTime start = interval.getStart().isBefore(from) ? from : interval.getStart();
+            LocalDateTime end = interval.getEnd().isAfter(to) ? to : interval.getEnd();
+            TimeIntervalDto last = busy.isEmpty() ? null : busy.get(busy.size() - 1);
+            if (last != null && !start.isAfter(last.getEnd())) {
+                if (end.isAfter(last.getEnd())) {
+                    last.setEnd(end);
+                }
+            } else {
+                busy.add(new TimeIntervalDto(start, end));
+            }
+        }
+        List<TimeIntervalDto> free = new ArrayList<>();
+        LocalDateTime cursor = from;
+        for (TimeIntervalDto interval : busy) {
+            if (interval.getStart().isAfter(cursor)) {
+                free.add(new TimeIntervalDto(cursor, interval.getStart()));
+            }
+            cursor = interval.getEnd();
+        }
+        if (to.isAfter(cursor)) {
+            free.add(new TimeIntervalDto(cursor, to));
+        }
+        return new ItemAvailabilityDto(itemId, from, to, busy, free);
+    }
+}
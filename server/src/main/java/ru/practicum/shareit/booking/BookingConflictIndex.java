@@ -0,0 +1,91 @@
+package ru.practicum.shareit.booking;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.BookingConflictException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+@Slf4j
+@Component
+public class BookingConflictIndex {
+    static final List<Status> BLOCKING_STATUSES = List.of(Status.WAITING, Status.APPROVED);
+
+    private final BookingRepository repository;
+    private final Cache<Long, BookingIntervalTree> trees;
+    private final boolean alwaysCheckDatabase;
+
+    @Autowired
+    public BookingConflictIndex(BookingRepository repository,
+                                @Value("${shareit.booking.conflict-index.maximum-size}") long maximumSize,
+                                @Value("${shareit.booking.conflict-index.expire-after-access}")
+                                Duration expireAfterAccess,
+                                @Value("${shareit.booking.locks}") String locks,
+                                @Value("${shareit.booking.archive.mode}") String archiveMode) {
+        this.repository = repository;
+        this.alwaysCheckDatabase = "advisory".equals(locks) || "partitions".equals(archiveMode);
+        this.trees = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(expireAfterAccess)
+                .build();
+    }
+
+    public Booking save(Booking booking, UnaryOperator<Booking> saver) {
+        Long itemId = booking.getItem().getId();
+        BookingIntervalTree tree = trees.get(itemId, this::load);
+        synchronized (tree) {
+            tree.removeEndedBefore(LocalDateTime.now());
+            boolean overlaps = tree.overlaps(booking.getStart(), booking.getEnd());
+            if ((alwaysCheckDatabase || overlaps) && repository.existsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(itemId,
+                    BLOCKING_STATUSES, booking.getEnd(), booking.getStart())) {
+                throw conflict(booking);
+            }
+            if (overlaps) {
+                log.warn("Индекс бронирований вещи с ID={} устарел и будет перестроен", itemId);
+                tree.clear();
+                fill(tree, itemId);
+            }
+            Booking saved;
+            try {
+                saved = saver.apply(booking);
+            } catch (DataIntegrityViolationException e) {
+                throw conflict(booking);
+            }
+            tree.insert(saved.getId(), saved.getStart(), saved.getEnd());
+            return saved;
+        }
+    }
+
+    public void release(Booking booking) {
+        BookingIntervalTree tree = trees.getIfPresent(booking.getItem().getId());
+        if (tree != null) {
+            synchronized (tree) {
+                tree.remove(booking.getId(), booking.getStart());
+            }
+        }
+    }
+
+    private BookingIntervalTree load(Long itemId) {
+        BookingIntervalTree tree = new BookingIntervalTree();
+        fill(tree, itemId);
+        return tree;
+    }
+
+    private void fill(BookingIntervalTree tree, Long itemId) {
+        repository.findByItemIdAndStatusInAndEndIsAfter(itemId, BLOCKING_STATUSES, LocalDateTime.now())
+                .forEach(booking -> tree.insert(booking.getId(), booking.getStart(), booking.getEnd()));
+    }
+
+    private BookingConflictException conflict(Booking booking) {
+        return new BookingConflictException("Вещь с ID=" + booking.getItem().getId() +
+                " уже забронирована на период с " + booking.getStart() + " по " + booking.getEnd() + "!");
+    }
+}
@@ -2,10 +2,19 @@ package ru.practicum.shareit.booking;
 
 import lombok.extern.slf4j.Slf4j;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.util.KeysetCursor;
+import ru.practicum.shareit.util.NdjsonResponses;
 
 import java.util.List;
 
@@ -14,11 +23,14 @@ import java.util.List;
 @RequestMapping(path = "/bookings")
 public class BookingController {
     private static final String USER_ID = "X-Sharer-User-Id";
+    private static final String NEXT_CURSOR = "X-Next-Cursor";
     private final BookingService service;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public BookingController(BookingService bookingService) {
+    public BookingController(BookingService bookingService, ObjectMapper objectMapper) {
         this.service = bookingService;
+        this.objectMapper = objectMapper;
     }
 
     @ResponseBody
@@ -38,6 +50,15 @@ public class BookingController {
         return service.update(bookingId, userId, approved);
     }
 
+    @ResponseBody
+    @PatchMapping("/batch")
+    public List<BookingDecisionResultDto> updateAll(@RequestBody List<BookingDecisionDto> decisions,
+                                                    @RequestHeader(USER_ID) Long userId) {
+        log.info("Получен PATCH-запрос к эндпоинту: '/bookings/batch' на обновление статусов {} бронирований " +
+                "пользователем с ID={}", decisions.size(), userId);
+        return service.updateAll(decisions, userId);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto getBookingById(@PathVariable Long bookingId, @RequestHeader(USER_ID) Long userId) {
         log.info("Получен GET-запрос к эндпоинту: '/bookings' на получение бронирования с ID={}", bookingId);
@@ -45,22 +66,69 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getBookings(@RequestParam(name = "state", defaultValue = "ALL") String state,
-                                        @RequestHeader(USER_ID) Long userId,
-                                        @RequestParam(defaultValue = "0") Integer from,
-                                        @RequestParam(required = false) Integer size) {
+    public ResponseEntity<List<BookingDto>> getBookings(@RequestParam(name = "state", defaultValue = "ALL") String state,
+                                                        @RequestHeader(USER_ID) Long userId,
+                                                        @RequestParam(defaultValue = "0") Integer from,
+                                                        @RequestParam(required = false) Integer size,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam(defaultValue = "false") Boolean archived) {
         log.info("Получен GET-запрос к эндпоинту: '/bookings' на получение " +
                 "списка всех бронирований пользователя с ID={} с параметром STATE={}", userId, state);
-        return service.getBookings(state, userId, from, size);
+        return withNextCursor(service.getBookings(state, userId, from, size, cursor, archived), size);
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getBookingsOwner(@RequestParam(name = "state", defaultValue = "ALL") String state,
-                                             @RequestHeader(USER_ID) Long userId,
-                                             @RequestParam(defaultValue = "0") Integer from,
-                                             @RequestParam(required = false) Integer size) {
+    public ResponseEntity<List<BookingDto>> getBookingsOwner(@RequestParam(name = "state", defaultValue = "ALL")
+                                                             String state,
+                                                             @RequestHeader(USER_ID) Long userId,
+                                                             @RequestParam(defaultValue = "0") Integer from,
+                                                             @RequestParam(required = false) Integer size,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(defaultValue = "false")
+                                                             Boolean archived) {
         log.info("Получен GET-запрос к эндпоинту: '/bookings/owner' на получение " +
                 "списка всех бронирований вещей пользователя с ID={} с параметром STATE={}", userId, state);
-        return service.getBookingsOwner(state, userId, from, size);
+        return withNextCursor(service.getBookingsOwner(state, userId, from, size, cursor, archived), size);
+    }
+
+    @GetMapping("/owner/summary")
+    public BookingSummaryDto getBookingsOwnerSummary(@RequestHeader(USER_ID) Long userId) {
+        log.info("Получен GET-запрос к эндпоинту: '/bookings/owner/summary' на получение " +
+                "количества бронирований вещей пользователя с ID={} по статусам", userId);
+        return service.getBookingsOwnerSummary(userId);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamBookings(@RequestParam(name = "state", defaultValue = "ALL")
+                                                                String state,
+                                                                @RequestHeader(USER_ID) Long userId,
+                                                                @RequestParam(defaultValue = "0") Integer from,
+                                                                @RequestParam(required = false) Integer size) {
+        log.info("Получен GET-запрос к эндпоинту: '/bookings' на потоковую выгрузку " +
+                "бронирований пользователя с ID={} с параметром STATE={}", userId, state);
+        return NdjsonResponses.<BookingDto>of(objectMapper,
+                action -> service.streamBookings(state, userId, from, size, action));
+    }
+
+    @GetMapping(path = "/owner", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamBookingsOwner(@RequestParam(name = "state", defaultValue = "ALL")
+                                                                     String state,
+                                                                     @RequestHeader(USER_ID) Long userId,
+                                                                     @RequestParam(defaultValue = "0") Integer from,
+                                                                     @RequestParam(required = false) Integer size) {
+        log.info("Получен GET-запрос к эндпоинту: '/bookings/owner' на потоковую выгрузку " +
+                "бронирований вещей пользователя с ID={} с параметром STATE={}", userId, state);
+        return NdjsonResponses.<BookingDto>of(objectMapper,
+                action -> service.streamBookingsOwner(state, userId, from, size, action));
+    }
+
+    private ResponseEntity<List<BookingDto>> withNextCursor(List<BookingDto> bookings, Integer size) {
+        if (size == null || bookings.size() < size) {
+            return ResponseEntity.ok(bookings);
+        }
+        BookingDto last = bookings.get(bookings.size() - 1);
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR, new KeysetCursor(last.getStart(), last.getId()).encode())
+                .body(bookings);
     }
 }
\ No newline at end of file
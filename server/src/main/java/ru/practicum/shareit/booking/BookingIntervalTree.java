@@ -0,0 +1,174 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+
+class BookingIntervalTree {
+    private Node root;
+
+    boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        Node node = root;
+        while (node != null) {
+            if (node.start.isBefore(end) && node.end.isAfter(start)) {
+                return true;
+            }
+            if (node.left != null && node.left.maxEnd.isAfter(start)) {
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return false;
+    }
+
+    void insert(Long id, LocalDateTime start, LocalDateTime end) {
+        root = insert(root, id, start, end);
+    }
+
+    void remove(Long id, LocalDateTime start) {
+        root = remove(root, id, start);
+    }
+
+    void removeEndedBefore(LocalDateTime moment) {
+        Node first = min(root);
+        while (first != null && !first.end.isAfter(moment)) {
+            root = remove(root, first.id, first.start);
+            first = min(root);
+        }
+    }
+
+    void clear() {
+        root = null;
+    }
+
+    private Node insert(Node node, Long id, LocalDateTime start, LocalDateTime end) {
+        if (node == null) {
+            return new Node(id, start, end);
+        }
+        int cmp = compare(id, start, node);
+        if (cmp < 0) {
+            node.left = insert(node.left, id, start, end);
+        } else if (cmp > 0) {
+            node.right = insert(node.right, id, start, end);
+        } else {
+            node.end = end;
+        }
+        return balance(node);
+    }
+
+    private Node remove(Node node, Long id, LocalDateTime start) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(id, start, node);
+        if (cmp < 0) {
+            node.left = remove(node.left, id, start);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, id, start);
+        } else {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = min(node.right);
+            node.right = removeMin(node.right);
+            successor.right = node.right;
+            successor.left = node.left;
+            node = successor;
+        }
+        return balance(node);
+    }
+
+    private Node removeMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return balance(node);
+    }
+
+    private Node min(Node node) {
+        if (node == null) {
+            return null;
+        }
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node;
+    }
+
+    private int compare(Long id, LocalDateTime start, Node node) {
+        int cmp = start.compareTo(node.start);
+        return cmp != 0 ? cmp : Long.compare(id, node.id);
+    }
+
+    private Node balance(Node node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private void update(Node node) {
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        node.maxEnd = node.end;
+        if (node.left != null && node.left.maxEnd.isAfter(node.maxEnd)) {
+            node.maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd.isAfter(node.maxEnd)) {
+            node.maxEnd = node.right.maxEnd;
+        }
+    }
+
+    private int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static class Node {
+        private final Long id;
+        private final LocalDateTime start;
+        private LocalDateTime end;
+        private LocalDateTime maxEnd;
+        private int height;
+        private Node left;
+        private Node right;
+
+        Node(Long id, LocalDateTime start, LocalDateTime end) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+            this.height = 1;
+        }
+    }
+}
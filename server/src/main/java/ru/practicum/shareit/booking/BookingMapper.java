@@ -4,19 +4,19 @@ import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.dto.BookingShortView;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemMapper;
-import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemComments;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserMapper;
-
-
-import java.util.List;
+import ru.practicum.shareit.user.dto.UserDto;
 
 @UtilityClass
 public class BookingMapper {
 
-    public BookingDto toBookingDto(Booking booking, List<CommentDto> comments) {
+    public BookingDto toBookingDto(Booking booking, ItemComments comments) {
         if (booking != null) {
             return new BookingDto(
                     booking.getId(),
@@ -31,6 +31,17 @@ public class BookingMapper {
         return null;
     }
 
+    public BookingDto toBookingDto(BookingView booking, ItemComments comments) {
+        return new BookingDto(
+                booking.getId(),
+                booking.getStartTime(),
+                booking.getEndTime(),
+                ItemMapper.toItemDto(booking, comments),
+                new UserDto(booking.getBookerId(), booking.getBookerName(), booking.getBookerEmail()),
+                booking.getStatus()
+        );
+    }
+
     public BookingShortDto toBookingShortDto(Booking booking) {
         if (booking != null) {
             return new BookingShortDto(
@@ -44,6 +55,30 @@ public class BookingMapper {
         return null;
     }
 
+    public BookingShortDto toBookingShortDto(BookingShortView booking) {
+        return new BookingShortDto(
+                booking.getId(),
+                booking.getBookerId(),
+                booking.getStartTime(),
+                booking.getEndTime()
+        );
+    }
+
+    public Booking toBooking(ArchivedBooking booking) {
+        if (booking != null) {
+            return new Booking(
+                    booking.getId(),
+                    booking.getStart(),
+                    booking.getEnd(),
+                    booking.getItem(),
+                    booking.getBooker(),
+                    booking.getStatus()
+            );
+        }
+
+        return null;
+    }
+
     public Booking toBooking(BookingInputDto bookingInputDto, User booker, Item item) {
         return new Booking(
                 null,
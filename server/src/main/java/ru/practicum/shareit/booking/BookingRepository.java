@@ -1,38 +1,228 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookingShortView;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.util.StreamBatches;
+
+import javax.persistence.QueryHint;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    Page<Booking> findByBookerId(Long bookerId, Pageable pageable);
+    String VIEW_COLUMNS = "select b.id as id, b.start as startTime, b.end as endTime, b.status as status, " +
+            "i.id as itemId, i.name as itemName, i.description as itemDescription, i.available as itemAvailable, " +
+            "i.owner.id as itemOwnerId, i.requestId as itemRequestId, " +
+            "u.id as bookerId, u.name as bookerName, u.email as bookerEmail ";
+    String VIEW_JOINS = " b join b.item i join b.booker u ";
+    String BY_BOOKER = VIEW_COLUMNS + "from Booking" + VIEW_JOINS + "where b.booker.id = :userId";
+    String BY_OWNER = VIEW_COLUMNS + "from Booking" + VIEW_JOINS + "where i.owner.id = :userId";
+    String CURRENT = " and b.start < :now and b.end > :now";
+    String PAST = " and b.end < :now";
+    String FUTURE = " and b.start > :now";
+    String WITH_STATUS = " and b.status = :status";
+    String NEWEST_FIRST = " order by b.start desc, b.id desc";
+    String BEFORE_CURSOR = " and (b.start < :start or (b.start = :start and b.id < :id))" + NEWEST_FIRST;
+
+    @Query(BY_BOOKER + NEWEST_FIRST)
+    Slice<BookingView> findByBookerId(@Param("userId") Long bookerId, Pageable pageable);
+
+    @Query(BY_BOOKER + CURRENT + NEWEST_FIRST)
+    Slice<BookingView> findCurrentByBookerId(@Param("userId") Long bookerId, @Param("now") LocalDateTime now,
+                                             Pageable pageable);
+
+    @Query(BY_BOOKER + PAST + NEWEST_FIRST)
+    Slice<BookingView> findPastByBookerId(@Param("userId") Long bookerId, @Param("now") LocalDateTime now,
+                                          Pageable pageable);
+
+    @Query(BY_BOOKER + FUTURE + NEWEST_FIRST)
+    Slice<BookingView> findFutureByBookerId(@Param("userId") Long bookerId, @Param("now") LocalDateTime now,
+                                            Pageable pageable);
+
+    @Query(BY_BOOKER + WITH_STATUS + NEWEST_FIRST)
+    Slice<BookingView> findByBookerIdAndStatus(@Param("userId") Long bookerId, @Param("status") Status status,
+                                               Pageable pageable);
+
+    @Query(BY_OWNER + NEWEST_FIRST)
+    Slice<BookingView> findByItemOwnerId(@Param("userId") Long ownerId, Pageable pageable);
+
+    @Query(BY_OWNER + CURRENT + NEWEST_FIRST)
+    Slice<BookingView> findCurrentByItemOwnerId(@Param("userId") Long ownerId, @Param("now") LocalDateTime now,
+                                                Pageable pageable);
+
+    @Query(BY_OWNER + PAST + NEWEST_FIRST)
+    Slice<BookingView> findPastByItemOwnerId(@Param("userId") Long ownerId, @Param("now") LocalDateTime now,
+                                             Pageable pageable);
+
+    @Query(BY_OWNER + FUTURE + NEWEST_FIRST)
+    Slice<BookingView> findFutureByItemOwnerId(@Param("userId") Long ownerId, @Param("now") LocalDateTime now,
+                                               Pageable pageable);
+
+    @Query(BY_OWNER + WITH_STATUS + NEWEST_FIRST)
+    Slice<BookingView> findByItemOwnerIdAndStatus(@Param("userId") Long ownerId, @Param("status") Status status,
+                                                  Pageable pageable);
+
+    @Query(BY_BOOKER + NEWEST_FIRST)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = StreamBatches.FETCH_SIZE))
+    Stream<BookingView> streamByBookerId(@Param("userId") Long bookerId);
+
+    @Query(BY_BOOKER + CURRENT + NEWEST_FIRST)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = StreamBatches.FETCH_SIZE))
+    Stream<BookingView> streamCurrentByBookerId(@Param("userId") Long bookerId, @Param("now") LocalDateTime now);
+
+    @Query(BY_BOOKER + PAST + NEWEST_FIRST)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = StreamBatches.FETCH_SIZE))
+    Stream<BookingView> streamPastByBookerId(@Param("userId") Long bookerId, @Param("now") LocalDateTime now);
+
+    @Query(BY_BOOKER + FUTURE + NEWEST_FIRST)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = StreamBatches.FETCH_SIZE))
+    Stream<BookingView> streamFutureByBookerId(@Param("userId") Long bookerId, @Param("now") LocalDateTime now);
+
+    @Query(BY_BOOKER + WITH_STATUS + NEWEST_FIRST)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = StreamBatches.FETCH_SIZE))
+    Stream<BookingView> streamByBookerIdAndStatus(@Param("userId") Long bookerId, @Param("status") Status status);
 
-    Page<Booking> findByBookerIdAndStartIsBeforeAndEndIsAfter(Long bookerId, LocalDateTime start,
-                                                              LocalDateTime end, Pageable pageable);
+    @Query(BY_OWNER + NEWEST_FIRST)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = StreamBatches.FETCH_SIZE))
+    Stream<BookingView> streamByItemOwnerId(@Param("userId") Long ownerId);
 
-    Page<Booking> findByBookerIdAndEndIsBefore(Long bookerId, LocalDateTime end, Pageable pageable);
+    @Query(BY_OWNER + CURRENT + NEWEST_FIRST)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = StreamBatches.FETCH_SIZE))
+    Stream<BookingView> streamCurrentByItemOwnerId(@Param("userId") Long ownerId, @Param("now") LocalDateTime now);
 
-    Page<Booking> findByBookerIdAndStartIsAfter(Long bookerId, LocalDateTime start, Pageable pageable);
+    @Query(BY_OWNER + PAST + NEWEST_FIRST)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = StreamBatches.FETCH_SIZE))
+    Stream<BookingView> streamPastByItemOwnerId(@Param("userId") Long ownerId, @Param("now") LocalDateTime now);
 
-    Page<Booking> findByBookerIdAndStatus(Long bookerId, Status status, Pageable pageable);
+    @Query(BY_OWNER + FUTURE + NEWEST_FIRST)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = StreamBatches.FETCH_SIZE))
+    Stream<BookingView> streamFutureByItemOwnerId(@Param("userId") Long ownerId, @Param("now") LocalDateTime now);
 
-    Page<Booking> findByItemOwnerId(Long ownerId, Pageable pageable);
+    @Query(BY_OWNER + WITH_STATUS + NEWEST_FIRST)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = StreamBatches.FETCH_SIZE))
+    Stream<BookingView> streamByItemOwnerIdAndStatus(@Param("userId") Long ownerId, @Param("status") Status status);
 
-    Page<Booking> findByItemOwnerIdAndStartIsBeforeAndEndIsAfter(Long ownerId, LocalDateTime start,
-                                                                 LocalDateTime end, Pageable pageable);
+    @Query(BY_BOOKER + BEFORE_CURSOR)
+    List<BookingView> findByBookerIdBeforeCursor(@Param("userId") Long bookerId, @Param("start") LocalDateTime start,
+                                                 @Param("id") Long id, Pageable pageable);
 
-    Page<Booking> findByItemOwnerIdAndEndIsBefore(Long bookerId, LocalDateTime end, Pageable pageable);
+    @Query(BY_BOOKER + CURRENT + BEFORE_CURSOR)
+    List<BookingView> findCurrentByBookerIdBeforeCursor(@Param("userId") Long bookerId,
+                                                        @Param("now") LocalDateTime now,
+                                                        @Param("start") LocalDateTime start, @Param("id") Long id,
+                                                        Pageable pageable);
 
-    Page<Booking> findByItemOwnerIdAndStartIsAfter(Long bookerId, LocalDateTime start, Pageable pageable);
+    @Query(BY_BOOKER + PAST + BEFORE_CURSOR)
+    List<BookingView> findPastByBookerIdBeforeCursor(@Param("userId") Long bookerId, @Param("now") LocalDateTime now,
+                                                     @Param("start") LocalDateTime start, @Param("id") Long id,
+                                                     Pageable pageable);
 
-    Page<Booking> findByItemOwnerIdAndStatus(Long bookerId, Status status, Pageable pageable);
+    @Query(BY_BOOKER + FUTURE + BEFORE_CURSOR)
+    List<BookingView> findFutureByBookerIdBeforeCursor(@Param("userId") Long bookerId,
+                                                       @Param("now") LocalDateTime now,
+                                                       @Param("start") LocalDateTime start, @Param("id") Long id,
+                                                       Pageable pageable);
+
+    @Query(BY_BOOKER + WITH_STATUS + BEFORE_CURSOR)
+    List<BookingView> findByBookerIdAndStatusBeforeCursor(@Param("userId") Long bookerId,
+                                                          @Param("status") Status status,
+                                                          @Param("start") LocalDateTime start, @Param("id") Long id,
+                                                          Pageable pageable);
+
+    @Query(BY_OWNER + BEFORE_CURSOR)
+    List<BookingView> findByItemOwnerIdBeforeCursor(@Param("userId") Long ownerId, @Param("start") LocalDateTime start,
+                                                    @Param("id") Long id, Pageable pageable);
+
+    @Query(BY_OWNER + CURRENT + BEFORE_CURSOR)
+    List<BookingView> findCurrentByItemOwnerIdBeforeCursor(@Param("userId") Long ownerId,
+                                                           @Param("now") LocalDateTime now,
+                                                           @Param("start") LocalDateTime start, @Param("id") Long id,
+                                                           Pageable pageable);
+
+    @Query(BY_OWNER + PAST + BEFORE_CURSOR)
+    List<BookingView> findPastByItemOwnerIdBeforeCursor(@Param("userId") Long ownerId,
+                                                        @Param("now") LocalDateTime now,
+                                                        @Param("start") LocalDateTime start, @Param("id") Long id,
+                                                        Pageable pageable);
+
+    @Query(BY_OWNER + FUTURE + BEFORE_CURSOR)
+    List<BookingView> findFutureByItemOwnerIdBeforeCursor(@Param("userId") Long ownerId,
+                                                          @Param("now") LocalDateTime now,
+                                                          @Param("start") LocalDateTime start, @Param("id") Long id,
+                                                          Pageable pageable);
+
+    @Query(BY_OWNER + WITH_STATUS + BEFORE_CURSOR)
+    List<BookingView> findByItemOwnerIdAndStatusBeforeCursor(@Param("userId") Long ownerId,
+                                                             @Param("status") Status status,
+                                                             @Param("start") LocalDateTime start,
+                                                             @Param("id") Long id, Pageable pageable);
+
+    @Override
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Optional<Booking> findById(Long id);
+
+    @Query("select b.item.id from Booking b where b.id = :id")
+    Optional<Long> findItemIdById(@Param("id") Long id);
+
+    @Query("select distinct b.item.id from Booking b where b.id in :ids")
+    List<Long> findItemIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select b from Booking b join fetch b.item where b.id in :ids")
+    List<Booking> findAllWithItemByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingSummaryDto(count(b), " +
+            "coalesce(sum(case when b.start < :now and b.end > :now then 1 else 0 end), 0), " +
+            "coalesce(sum(case when b.end < :now then 1 else 0 end), 0), " +
+            "coalesce(sum(case when b.start > :now then 1 else 0 end), 0), " +
+            "coalesce(sum(case when b.status = :waiting then 1 else 0 end), 0), " +
+            "coalesce(sum(case when b.status = :rejected then 1 else 0 end), 0)) " +
+            "from Booking b join b.item i where i.owner.id = :ownerId")
+    BookingSummaryDto getSummaryByItemOwnerId(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now,
+                                              @Param("waiting") Status waiting, @Param("rejected") Status rejected);
 
     Booking findFirstByItemIdAndEndBeforeOrderByEndDesc(Long itemId, LocalDateTime end);
 
     Booking findFirstByItemIdAndStartAfterOrderByStartAsc(Long itemId, LocalDateTime end);
 
+    @Query("select min(case when b.start > :now then b.start else b.end end) from Booking b " +
+            "where b.item.id = :itemId and b.end > :now")
+    LocalDateTime findNextBoundaryByItemId(@Param("itemId") Long itemId, @Param("now") LocalDateTime now);
+
+    List<Booking> findByItemIdAndStatusInAndEndIsAfter(Long itemId, Collection<Status> statuses, LocalDateTime end);
+
+    List<Booking> findByItemIdAndStatusInAndStartIsBeforeAndEndIsAfterOrderByStartAsc(Long itemId,
+                                                                                      Collection<Status> statuses,
+                                                                                      LocalDateTime start,
+                                                                                      LocalDateTime end);
+
+    boolean existsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(Long itemId, Collection<Status> statuses,
+                                                                   LocalDateTime start, LocalDateTime end);
+
     Booking findFirstByItemIdAndBookerIdAndEndIsBeforeAndStatus(Long itemId, Long userId,
                                                                 LocalDateTime end, Status status);
+
+    @Query(value = "select t.id as id, t.item_id as itemId, t.booker_id as bookerId, " +
+            "t.start_date as startTime, t.end_date as endTime " +
+            "from (select b.id, b.item_id, b.booker_id, b.start_date, b.end_date, " +
+            "      row_number() over (partition by b.item_id, case when b.end_date < :now then 0 else 1 end " +
+            "                         order by case when b.end_date < :now then b.end_date end desc, " +
+            "                                  b.start_date) as rn " +
+            "      from bookings b " +
+            "      where b.item_id in (:itemIds) and (b.end_date < :now or b.start_date > :now)) t " +
+            "where t.rn = 1", nativeQuery = true)
+    List<BookingShortView> findLastAndNextByItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                                    @Param("now") LocalDateTime now);
 }
\ No newline at end of file
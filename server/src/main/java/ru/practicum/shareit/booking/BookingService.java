@@ -1,26 +1,49 @@
 package ru.practicum.shareit.booking;
 
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.dto.BookingShortView;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
     BookingDto create(BookingInputDto bookingDto, Long bookerId);
 
     BookingDto update(Long bookingId, Long userId, Boolean approved);
 
+    List<BookingDecisionResultDto> updateAll(List<BookingDecisionDto> decisions, Long userId);
+
     BookingDto getBookingById(Long bookingId, Long userId);
 
-    List<BookingDto> getBookings(String state, Long userId, Integer from, Integer size);
+    List<BookingDto> getBookings(String state, Long userId, Integer from, Integer size, String cursor,
+                                 boolean archived);
+
+    List<BookingDto> getBookingsOwner(String state, Long userId, Integer from, Integer size, String cursor,
+                                      boolean archived);
+
+    BookingSummaryDto getBookingsOwnerSummary(Long userId);
+
+    void streamBookings(String state, Long userId, Integer from, Integer size, Consumer<BookingDto> action);
 
-    List<BookingDto> getBookingsOwner(String state, Long userId, Integer from, Integer size);
+    void streamBookingsOwner(String state, Long userId, Integer from, Integer size, Consumer<BookingDto> action);
 
     BookingShortDto getLastBooking(Long itemId);
 
     BookingShortDto getNextBooking(Long itemId);
 
+    LocalDateTime getNextBookingBoundary(Long itemId, LocalDateTime now);
+
+    List<BookingShortView> getLastAndNextBookings(List<Long> itemIds, LocalDateTime now);
+
+    ItemAvailabilityDto getItemAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
+
     Booking getBookingWithUserBookedItem(Long itemId, Long userId);
 
 }
\ No newline at end of file
@@ -2,55 +2,103 @@ package ru.practicum.shareit.booking;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.dto.BookingShortView;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.event.BookingOutbox;
+import ru.practicum.shareit.config.CacheConfig;
 import ru.practicum.shareit.exception.BookingNotFoundException;
 import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.CommentLoader;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemServiceImpl;
-import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemComments;
 import ru.practicum.shareit.service.CheckConsistencyService;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserServiceImpl;
-import ru.practicum.shareit.util.Pagination;
+import ru.practicum.shareit.util.KeysetCursor;
+import ru.practicum.shareit.util.OffsetLimitPageable;
+import ru.practicum.shareit.util.StreamBatches;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
 
 @Slf4j
 @Service
 public class BookingServiceImpl implements BookingService {
+    private static final Comparator<BookingView> NEWEST_FIRST = Comparator.comparing(BookingView::getStartTime)
+            .thenComparing(BookingView::getId)
+            .reversed();
+    private static final Set<String> ARCHIVED_STATES = Set.of("ALL", "PAST", "WAITING", "REJECTED");
 
     private final BookingRepository repository;
+    private final ArchivedBookingRepository archiveRepository;
     private final CheckConsistencyService checker;
     private final UserServiceImpl userService;
     private final ItemServiceImpl itemService;
+    private final BookingConflictIndex conflictIndex;
+    private final CommentLoader commentLoader;
+    private final ItemLocks itemLocks;
+    private final BookingOutbox outbox;
+    private final Cache summaryCache;
+    private final Cache itemDetailsCache;
+    private final BookingAvailability availability;
 
     @Autowired
     @Lazy
-    public BookingServiceImpl(BookingRepository bookingRepository,
-                              CheckConsistencyService checkConsistencyService, UserServiceImpl userService, ItemServiceImpl itemService) {
+    public BookingServiceImpl(BookingRepository bookingRepository, ArchivedBookingRepository archiveRepository,
+                              CheckConsistencyService checkConsistencyService, UserServiceImpl userService, ItemServiceImpl itemService,
+                              BookingConflictIndex conflictIndex, CommentLoader commentLoader, CacheManager cacheManager, ItemLocks itemLocks,
+                              BookingOutbox outbox, BookingAvailability availability) {
         this.repository = bookingRepository;
+        this.archiveRepository = archiveRepository;
         this.checker = checkConsistencyService;
         this.userService = userService;
         this.itemService = itemService;
+        this.conflictIndex = conflictIndex;
+        this.commentLoader = commentLoader;
+        this.itemLocks = itemLocks;
+        this.outbox = outbox;
+        this.summaryCache = cacheManager.getCache(CacheConfig.BOOKING_SUMMARY);
+        this.itemDetailsCache = cacheManager.getCache(CacheConfig.ITEM_DETAILS);
+        this.availability = availability;
     }
 
     @Override
     public BookingDto create(BookingInputDto bookingInputDto, Long bookerId) {
         checker.isExistUser(bookerId);
+        if (!bookingInputDto.getEnd().isAfter(bookingInputDto.getStart())) {
+            throw new ValidationException("Окончание бронирования должно быть позже его начала!");
+        }
 
         if (!checker.isAvailableItem(bookingInputDto.getItemId())) {
             throw new ValidationException("Вещь с ID=" + bookingInputDto.getItemId() +
@@ -58,19 +106,36 @@ public class BookingServiceImpl implements BookingService {
         }
         User user = userService.findUserById(bookerId);
         Item item = itemService.findItemById(bookingInputDto.getItemId());
-        List<CommentDto> comments = itemService.getCommentsByItemId(item.getId());
+        ItemComments comments = commentLoader.load(item.getId());
 
         if (bookerId.equals(item.getOwner().getId())) {
             throw new BookingNotFoundException("Вещь с ID=" + bookingInputDto.getItemId() +
                     " недоступна для бронирования самим владельцем!");
         }
         Booking booking = BookingMapper.toBooking(bookingInputDto, user, item);
-        return BookingMapper.toBookingDto(repository.save(booking), comments);
+        Booking saved = itemLocks.execute(List.of(item.getId()), () -> {
+            Booking created = conflictIndex.save(booking, repository::saveAndFlush);
+            outbox.record(List.of(created));
+            return created;
+        });
+        bookingChanged(saved);
+        return BookingMapper.toBookingDto(saved, comments);
     }
 
     @Override
     public BookingDto update(Long bookingId, Long userId, Boolean approved) {
         checker.isExistUser(userId);
+        Long itemId = repository.findItemIdById(bookingId)
+                .orElseThrow(() -> new BookingNotFoundException("Бронирование с ID=" + bookingId + " не найдено!"));
+        Booking saved = itemLocks.execute(List.of(itemId), () -> applyUpdate(bookingId, userId, approved));
+        bookingChanged(saved);
+        if (!BookingConflictIndex.BLOCKING_STATUSES.contains(saved.getStatus())) {
+            conflictIndex.release(saved);
+        }
+        return BookingMapper.toBookingDto(saved, commentLoader.load(itemId));
+    }
+
+    private Booking applyUpdate(Long bookingId, Long userId, Boolean approved) {
         Booking booking = repository.findById(bookingId)
                 .orElseThrow(() -> new BookingNotFoundException("Бронирование с ID=" + bookingId + " не найдено!"));
         if (booking.getEnd().isBefore(LocalDateTime.now())) {
@@ -100,76 +165,221 @@ public class BookingServiceImpl implements BookingService {
                 booking.getStatus().equals(Status.CANCELED) ? "Бронирование было отменено!" : "Подтвердить бронирование может только владелец вещи!"
             );
         }
-        List<CommentDto> comments = itemService.getCommentsByItemId(booking.getItem().getId());
-        return BookingMapper.toBookingDto(repository.save(booking), comments);
+        Booking saved = repository.save(booking);
+        outbox.record(List.of(saved));
+        return saved;
+    }
+
+    @Override
+    public List<BookingDecisionResultDto> updateAll(List<BookingDecisionDto> decisions, Long userId) {
+        checker.isExistUser(userId);
+        if (decisions == null || decisions.isEmpty()) {
+            throw new ValidationException("Список решений по бронированиям пуст!");
+        }
+        Set<Long> bookingIds = decisions.stream()
+                .map(BookingDecisionDto::getBookingId)
+                .filter(Objects::nonNull)
+                .collect(toSet());
+        List<Booking> changed = new ArrayList<>();
+        List<Long> itemIds = bookingIds.isEmpty() ? List.of() : repository.findItemIdsByIdIn(bookingIds);
+        List<BookingDecisionResultDto> results = itemLocks.execute(itemIds,
+                () -> applyDecisions(decisions, bookingIds, userId, changed));
+        log.info("Пользователь с ID={} принял решения по {} бронированиям", userId, changed.size());
+        changed.stream()
+                .filter(booking -> booking.getStatus().equals(Status.REJECTED))
+                .forEach(conflictIndex::release);
+        changed.forEach(this::bookingChanged);
+        return results;
+    }
+
+    private List<BookingDecisionResultDto> applyDecisions(List<BookingDecisionDto> decisions, Set<Long> bookingIds,
+                                                          Long userId, List<Booking> changed) {
+        Map<Long, Booking> bookings = bookingIds.isEmpty() ? Map.of() : repository.findAllWithItemByIdIn(bookingIds)
+                .stream()
+                .collect(toMap(Booking::getId, Function.identity()));
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> decided = new HashSet<>();
+        List<BookingDecisionResultDto> results = new ArrayList<>();
+        for (BookingDecisionDto decision : decisions) {
+            Booking booking = bookings.get(decision.getBookingId());
+            String error = checkDecision(decision, booking, userId, now, decided);
+            if (error != null) {
+                boolean visible = booking != null && booking.getItem().getOwner().getId().equals(userId);
+                results.add(new BookingDecisionResultDto(decision.getBookingId(),
+                        visible ? booking.getStatus() : null, error));
+                continue;
+            }
+            booking.setStatus(decision.getApproved() ? Status.APPROVED : Status.REJECTED);
+            changed.add(booking);
+            results.add(new BookingDecisionResultDto(booking.getId(), booking.getStatus(), null));
+        }
+        outbox.record(changed);
+        return results;
+    }
+
+    private String checkDecision(BookingDecisionDto decision, Booking booking, Long userId, LocalDateTime now,
+                                 Set<Long> decided) {
+        if (decision.getBookingId() == null || decision.getApproved() == null) {
+            return "Не указано бронирование или решение по нему!";
+        }
+        if (booking == null) {
+            return "Бронирование с ID=" + decision.getBookingId() + " не найдено!";
+        }
+        if (!booking.getItem().getOwner().getId().equals(userId)) {
+            return "Подтвердить бронирование может только владелец вещи!";
+        }
+        if (!decided.add(booking.getId())) {
+            return "Решение по бронированию уже указано в запросе!";
+        }
+        if (booking.getStatus().equals(Status.CANCELED)) {
+            return "Бронирование было отменено!";
+        }
+        if (!booking.getStatus().equals(Status.WAITING)) {
+            return "Решение по бронированию уже принято!";
+        }
+        if (booking.getEnd().isBefore(now)) {
+            return "Время бронирования уже истекло!";
+        }
+        return null;
     }
 
     @Override
     public BookingDto getBookingById(Long bookingId, Long userId) {
         checker.isExistUser(userId);
         Booking booking = repository.findById(bookingId)
+                .or(() -> archiveRepository.findById(bookingId).map(BookingMapper::toBooking))
                 .orElseThrow(() -> new BookingNotFoundException("Бронирование с ID=" + bookingId + " не найдено!"));
         if (booking.getBooker().getId().equals(userId) || checker.isItemOwner(booking.getItem().getId(), userId)) {
-            List<CommentDto> comments = itemService.getCommentsByItemId(booking.getItem().getId());
+            ItemComments comments = commentLoader.load(booking.getItem().getId());
             return BookingMapper.toBookingDto(booking, comments);
         }
         throw new UserNotFoundException("Посмотреть данные бронирования может только владелец вещи" + " или бронирующий ее!");
     }
 
     @Override
-    public List<BookingDto> getBookings(String state, Long userId, Integer from, Integer size) {
+    public List<BookingDto> getBookings(String state, Long userId, Integer from, Integer size, String cursor,
+                                        boolean archived) {
         checker.isExistUser(userId);
+        if (archived && ARCHIVED_STATES.contains(state)) {
+            return toBookingDtos(getBookingsWithArchive(state, userId, false, from, size, cursor));
+        }
+        if (cursor != null) {
+            return toBookingDtos(getBookingsBeforeCursor(state, userId, KeysetCursor.decode(cursor),
+                    cursorPageable(size)));
+        }
         List<BookingDto> listBookingDto = new ArrayList<>();
-        Pageable pageable;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
-        Page<Booking> page;
-        Pagination pager = new Pagination(from, size);
+        Pageable pageable = OffsetLimitPageable.of(from, size, Sort.unsorted());
+        Slice<BookingView> page;
 
-        if (size == null) {
-            pageable =
-                    PageRequest.of(pager.getIndex(), pager.getPageSize(), sort);
-            do {
-                page = getPageBookings(state, userId, pageable);
-                listBookingDto.addAll(page.stream().map(booking -> {
-                    List<CommentDto> comments = itemService.getCommentsByItemId(booking.getItem().getId());
-                    return BookingMapper.toBookingDto(booking, comments);
-                }).collect(Collectors.toList()));
-                pageable = pageable.next();
-            } while (page.hasNext());
+        do {
+            page = getPageBookings(state, userId, pageable);
+            listBookingDto.addAll(toBookingDtos(page.getContent()));
+            pageable = page.nextPageable();
+        } while (size == null && page.hasNext());
+        return listBookingDto;
+    }
 
+    private List<BookingView> getBookingsWithArchive(String state, Long userId, boolean owner, Integer from,
+                                                     Integer size, String cursor) {
+        Status status = archivedStatus(state);
+        List<BookingView> bookings = new ArrayList<>();
+        if (cursor != null) {
+            KeysetCursor keyset = KeysetCursor.decode(cursor);
+            Pageable pageable = cursorPageable(size);
+            bookings.addAll(owner
+                    ? getBookingsOwnerBeforeCursor(state, userId, keyset, pageable)
+                    : getBookingsBeforeCursor(state, userId, keyset, pageable));
+            bookings.addAll(getArchivedBeforeCursor(userId, owner, status, keyset, pageable));
+            from = 0;
         } else {
-            for (int i = pager.getIndex(); i < pager.getTotalPages(); i++) {
-                pageable =
-                        PageRequest.of(i, pager.getPageSize(), sort);
-                page = getPageBookings(state, userId, pageable);
-                listBookingDto.addAll(page.stream().map(booking -> {
-                    List<CommentDto> comments = itemService.getCommentsByItemId(booking.getItem().getId());
-                    return BookingMapper.toBookingDto(booking, comments);
-                }).collect(Collectors.toList()));
-                if (!page.hasNext()) {
-                    break;
-                }
-            }
-            listBookingDto = listBookingDto.stream().limit(size).collect(toList());
+            OffsetLimitPageable.validate(from, size);
+            Integer limit = size == null ? null : from + size;
+            bookings.addAll(collectSlices(pageable -> owner
+                    ? getPageBookingsOwner(state, userId, pageable)
+                    : getPageBookings(state, userId, pageable), limit));
+            bookings.addAll(collectSlices(pageable -> getArchivedPage(userId, owner, status, pageable), limit));
         }
-        return listBookingDto;
+        return bookings.stream()
+                .sorted(NEWEST_FIRST)
+                .skip(from)
+                .limit(size == null ? Long.MAX_VALUE : size)
+                .collect(toList());
+    }
+
+    private static Status archivedStatus(String state) {
+        switch (state) {
+            case "ALL":
+            case "PAST":
+                return null;
+            case "WAITING":
+                return Status.WAITING;
+            case "REJECTED":
+                return Status.REJECTED;
+            default:
+                throw new ValidationException("Unknown state: " + state);
+        }
+    }
+
+    private Slice<BookingView> getArchivedPage(Long userId, boolean owner, Status status, Pageable pageable) {
+        if (status == null) {
+            return owner
+                    ? archiveRepository.findByItemOwnerId(userId, pageable)
+                    : archiveRepository.findByBookerId(userId, pageable);
+        }
+        return owner
+                ? archiveRepository.findByItemOwnerIdAndStatus(userId, status, pageable)
+                : archiveRepository.findByBookerIdAndStatus(userId, status, pageable);
     }
 
-    private Page<Booking> getPageBookings(String state, Long userId, Pageable pageable) {
-        Page<Booking> page;
+    private List<BookingView> getArchivedBeforeCursor(Long userId, boolean owner, Status status, KeysetCursor cursor,
+                                                      Pageable pageable) {
+        LocalDateTime start = cursor.getMoment();
+        Long id = cursor.getId();
+        if (status == null) {
+            return owner
+                    ? archiveRepository.findByItemOwnerIdBeforeCursor(userId, start, id, pageable)
+                    : archiveRepository.findByBookerIdBeforeCursor(userId, start, id, pageable);
+        }
+        return owner
+                ? archiveRepository.findByItemOwnerIdAndStatusBeforeCursor(userId, status, start, id, pageable)
+                : archiveRepository.findByBookerIdAndStatusBeforeCursor(userId, status, start, id, pageable);
+    }
+
+    private <T> List<T> collectSlices(Function<Pageable, Slice<T>> query, Integer limit) {
+        List<T> rows = new ArrayList<>();
+        Pageable pageable = OffsetLimitPageable.of(0, limit, Sort.unsorted());
+        Slice<T> page;
+        do {
+            page = query.apply(pageable);
+            rows.addAll(page.getContent());
+            pageable = page.nextPageable();
+        } while (limit == null && page.hasNext());
+        return rows;
+    }
+
+    private List<BookingDto> toBookingDtos(List<BookingView> bookings) {
+        commentLoader.prime(bookings.stream()
+                .map(BookingView::getItemId)
+                .collect(toSet()));
+        return bookings.stream()
+                .map(booking -> BookingMapper.toBookingDto(booking, commentLoader.load(booking.getItemId())))
+                .collect(toList());
+    }
+
+    private Slice<BookingView> getPageBookings(String state, Long userId, Pageable pageable) {
+        Slice<BookingView> page;
         switch (state) {
             case "ALL":
                 page = repository.findByBookerId(userId, pageable);
                 break;
             case "CURRENT":
-                page = repository.findByBookerIdAndStartIsBeforeAndEndIsAfter(userId, LocalDateTime.now(),
-                        LocalDateTime.now(), pageable);
+                page = repository.findCurrentByBookerId(userId, LocalDateTime.now(), pageable);
                 break;
             case "PAST":
-                page = repository.findByBookerIdAndEndIsBefore(userId, LocalDateTime.now(), pageable);
+                page = repository.findPastByBookerId(userId, LocalDateTime.now(), pageable);
                 break;
             case "FUTURE":
-                page = repository.findByBookerIdAndStartIsAfter(userId, LocalDateTime.now(), pageable);
+                page = repository.findFutureByBookerId(userId, LocalDateTime.now(), pageable);
                 break;
             case "WAITING":
                 page = repository.findByBookerIdAndStatus(userId, Status.WAITING, pageable);
@@ -183,61 +393,65 @@ public class BookingServiceImpl implements BookingService {
         return page;
     }
 
+    private List<BookingView> getBookingsBeforeCursor(String state, Long userId, KeysetCursor cursor,
+                                                  Pageable pageable) {
+        LocalDateTime start = cursor.getMoment();
+        Long id = cursor.getId();
+        switch (state) {
+            case "ALL":
+                return repository.findByBookerIdBeforeCursor(userId, start, id, pageable);
+            case "CURRENT":
+                return repository.findCurrentByBookerIdBeforeCursor(userId, LocalDateTime.now(), start, id, pageable);
+            case "PAST":
+                return repository.findPastByBookerIdBeforeCursor(userId, LocalDateTime.now(), start, id, pageable);
+            case "FUTURE":
+                return repository.findFutureByBookerIdBeforeCursor(userId, LocalDateTime.now(), start, id, pageable);
+            case "WAITING":
+                return repository.findByBookerIdAndStatusBeforeCursor(userId, Status.WAITING, start, id, pageable);
+            case "REJECTED":
+                return repository.findByBookerIdAndStatusBeforeCursor(userId, Status.REJECTED, start, id, pageable);
+            default:
+                throw new ValidationException("Unknown state: " + state);
+        }
+    }
+
     @Override
-    public List<BookingDto> getBookingsOwner(String state, Long userId, Integer from, Integer size) {
+    public List<BookingDto> getBookingsOwner(String state, Long userId, Integer from, Integer size, String cursor,
+                                             boolean archived) {
         checker.isExistUser(userId);
+        if (archived && ARCHIVED_STATES.contains(state)) {
+            return toBookingDtos(getBookingsWithArchive(state, userId, true, from, size, cursor));
+        }
+        if (cursor != null) {
+            return toBookingDtos(getBookingsOwnerBeforeCursor(state, userId, KeysetCursor.decode(cursor),
+                    cursorPageable(size)));
+        }
         List<BookingDto> listBookingDto = new ArrayList<>();
-        Pageable pageable;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
-        Page<Booking> page;
-        Pagination pager = new Pagination(from, size);
-
-        if (size == null) {
-            pageable =
-                    PageRequest.of(pager.getIndex(), pager.getPageSize(), sort);
-            do {
-                page = getPageBookingsOwner(state, userId, pageable);
-                listBookingDto.addAll(page.stream().map(booking -> {
-                    List<CommentDto> comments = itemService.getCommentsByItemId(booking.getItem().getId());
-                    return BookingMapper.toBookingDto(booking, comments);
-                }).collect(Collectors.toList()));
-                pageable = pageable.next();
-            } while (page.hasNext());
+        Pageable pageable = OffsetLimitPageable.of(from, size, Sort.unsorted());
+        Slice<BookingView> page;
 
-        } else {
-            for (int i = pager.getIndex(); i < pager.getTotalPages(); i++) {
-                pageable =
-                        PageRequest.of(i, pager.getPageSize(), sort);
-                page = getPageBookingsOwner(state, userId, pageable);
-                listBookingDto.addAll(page.stream().map(booking -> {
-                    List<CommentDto> comments = itemService.getCommentsByItemId(booking.getItem().getId());
-                    return BookingMapper.toBookingDto(booking, comments);
-                }).collect(Collectors.toList()));
-                if (!page.hasNext()) {
-                    break;
-                }
-            }
-            listBookingDto = listBookingDto.stream().limit(size).collect(toList());
-        }
+        do {
+            page = getPageBookingsOwner(state, userId, pageable);
+            listBookingDto.addAll(toBookingDtos(page.getContent()));
+            pageable = page.nextPageable();
+        } while (size == null && page.hasNext());
         return listBookingDto;
     }
 
-    private Page<Booking> getPageBookingsOwner(String state, Long userId, Pageable pageable) {
-        Page<Booking> page;
+    private Slice<BookingView> getPageBookingsOwner(String state, Long userId, Pageable pageable) {
+        Slice<BookingView> page;
         switch (state) {
             case "ALL":
                 page = repository.findByItemOwnerId(userId, pageable);
                 break;
             case "CURRENT":
-                page = repository.findByItemOwnerIdAndStartIsBeforeAndEndIsAfter(userId, LocalDateTime.now(),
-                        LocalDateTime.now(), pageable);
+                page = repository.findCurrentByItemOwnerId(userId, LocalDateTime.now(), pageable);
                 break;
             case "PAST":
-                page = repository.findByItemOwnerIdAndEndIsBefore(userId, LocalDateTime.now(), pageable);
+                page = repository.findPastByItemOwnerId(userId, LocalDateTime.now(), pageable);
                 break;
             case "FUTURE":
-                page = repository.findByItemOwnerIdAndStartIsAfter(userId, LocalDateTime.now(),
-                        pageable);
+                page = repository.findFutureByItemOwnerId(userId, LocalDateTime.now(), pageable);
                 break;
             case "WAITING":
                 page = repository.findByItemOwnerIdAndStatus(userId, Status.WAITING, pageable);
@@ -251,10 +465,149 @@ public class BookingServiceImpl implements BookingService {
         return page;
     }
 
+    private List<BookingView> getBookingsOwnerBeforeCursor(String state, Long userId, KeysetCursor cursor,
+                                                       Pageable pageable) {
+        LocalDateTime start = cursor.getMoment();
+        Long id = cursor.getId();
+        switch (state) {
+            case "ALL":
+                return repository.findByItemOwnerIdBeforeCursor(userId, start, id, pageable);
+            case "CURRENT":
+                return repository.findCurrentByItemOwnerIdBeforeCursor(userId, LocalDateTime.now(), start, id, pageable);
+            case "PAST":
+                return repository.findPastByItemOwnerIdBeforeCursor(userId, LocalDateTime.now(), start, id, pageable);
+            case "FUTURE":
+                return repository.findFutureByItemOwnerIdBeforeCursor(userId, LocalDateTime.now(), start, id, pageable);
+            case "WAITING":
+                return repository.findByItemOwnerIdAndStatusBeforeCursor(userId, Status.WAITING, start, id, pageable);
+            case "REJECTED":
+                return repository.findByItemOwnerIdAndStatusBeforeCursor(userId, Status.REJECTED, start, id, pageable);
+            default:
+                throw new ValidationException("Unknown state: " + state);
+        }
+    }
+
+    @Override
+    public BookingSummaryDto getBookingsOwnerSummary(Long userId) {
+        checker.isExistUser(userId);
+        if (summaryCache == null) {
+            return loadSummary(userId);
+        }
+        return summaryCache.get(userId, () -> loadSummary(userId));
+    }
+
+    private BookingSummaryDto loadSummary(Long userId) {
+        BookingSummaryDto summary = repository.getSummaryByItemOwnerId(userId, LocalDateTime.now(), Status.WAITING,
+                Status.REJECTED);
+        BookingSummaryDto archived = archiveRepository.getSummaryByItemOwnerId(userId, Status.WAITING,
+                Status.REJECTED);
+        summary.setAll(summary.getAll() + archived.getAll());
+        summary.setPast(summary.getPast() + archived.getPast());
+        summary.setWaiting(summary.getWaiting() + archived.getWaiting());
+        summary.setRejected(summary.getRejected() + archived.getRejected());
+        return summary;
+    }
+
+    private void bookingChanged(Booking booking) {
+        if (summaryCache != null) {
+            summaryCache.evict(booking.getItem().getOwner().getId());
+        }
+        availability.evict(booking.getItem().getId());
+        itemDetailsCache.evict(booking.getItem().getId());
+    }
+
+    @Override
+    public ItemAvailabilityDto getItemAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || !to.isAfter(from)) {
+            throw new ValidationException("Окончание периода должно быть позже его начала!");
+        }
+        return availability.get(itemId, from, to);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamBookings(String state, Long userId, Integer from, Integer size, Consumer<BookingDto> action) {
+        checker.isExistUser(userId);
+        try (Stream<BookingView> bookings = streamBookingsByState(state, userId)) {
+            StreamBatches.forEachBatch(bookings, from, size, batch -> writeBatch(batch, action));
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamBookingsOwner(String state, Long userId, Integer from, Integer size,
+                                    Consumer<BookingDto> action) {
+        checker.isExistUser(userId);
+        try (Stream<BookingView> bookings = streamBookingsOwnerByState(state, userId)) {
+            StreamBatches.forEachBatch(bookings, from, size, batch -> writeBatch(batch, action));
+        }
+    }
+
+    private void writeBatch(List<BookingView> batch, Consumer<BookingDto> action) {
+        Map<Long, ItemComments> comments = itemService.getCommentsByItemIds(batch.stream()
+                .map(BookingView::getItemId)
+                .collect(toSet()));
+        batch.forEach(booking -> action.accept(BookingMapper.toBookingDto(booking,
+                comments.getOrDefault(booking.getItemId(), ItemComments.empty()))));
+    }
+
+    private Stream<BookingView> streamBookingsByState(String state, Long userId) {
+        switch (state) {
+            case "ALL":
+                return repository.streamByBookerId(userId);
+            case "CURRENT":
+                return repository.streamCurrentByBookerId(userId, LocalDateTime.now());
+            case "PAST":
+                return repository.streamPastByBookerId(userId, LocalDateTime.now());
+            case "FUTURE":
+                return repository.streamFutureByBookerId(userId, LocalDateTime.now());
+            case "WAITING":
+                return repository.streamByBookerIdAndStatus(userId, Status.WAITING);
+            case "REJECTED":
+                return repository.streamByBookerIdAndStatus(userId, Status.REJECTED);
+            default:
+                throw new ValidationException("Unknown state: " + state);
+        }
+    }
+
+    private Stream<BookingView> streamBookingsOwnerByState(String state, Long userId) {
+        switch (state) {
+            case "ALL":
+                return repository.streamByItemOwnerId(userId);
+            case "CURRENT":
+                return repository.streamCurrentByItemOwnerId(userId, LocalDateTime.now());
+            case "PAST":
+                return repository.streamPastByItemOwnerId(userId, LocalDateTime.now());
+            case "FUTURE":
+                return repository.streamFutureByItemOwnerId(userId, LocalDateTime.now());
+            case "WAITING":
+                return repository.streamByItemOwnerIdAndStatus(userId, Status.WAITING);
+            case "REJECTED":
+                return repository.streamByItemOwnerIdAndStatus(userId, Status.REJECTED);
+            default:
+                throw new ValidationException("Unknown state: " + state);
+        }
+    }
+
+    private Pageable cursorPageable(Integer size) {
+        if (size == null) {
+            return Pageable.unpaged();
+        }
+        if (size <= 0) {
+            throw new ValidationException("Значение должно быть больше нуля!");
+        }
+        return PageRequest.of(0, size);
+    }
+
     @Override
     public BookingShortDto getLastBooking(Long itemId) {
-        return BookingMapper.toBookingShortDto(repository.findFirstByItemIdAndEndBeforeOrderByEndDesc(itemId,
-                LocalDateTime.now()));
+        LocalDateTime now = LocalDateTime.now();
+        Booking booking = repository.findFirstByItemIdAndEndBeforeOrderByEndDesc(itemId, now);
+        if (booking == null) {
+            booking = BookingMapper.toBooking(archiveRepository.findFirstByItemIdAndEndBeforeOrderByEndDesc(itemId,
+                    now));
+        }
+        return BookingMapper.toBookingShortDto(booking);
     }
 
     @Override
@@ -263,9 +616,38 @@ public class BookingServiceImpl implements BookingService {
                 LocalDateTime.now()));
     }
 
+    @Override
+    public LocalDateTime getNextBookingBoundary(Long itemId, LocalDateTime now) {
+        return repository.findNextBoundaryByItemId(itemId, now);
+    }
+
+    @Override
+    public List<BookingShortView> getLastAndNextBookings(List<Long> itemIds, LocalDateTime now) {
+        if (itemIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<BookingShortView> bookings = new ArrayList<>(repository.findLastAndNextByItemIds(itemIds, now));
+        Set<Long> withLast = bookings.stream()
+                .filter(booking -> booking.getEndTime().isBefore(now))
+                .map(BookingShortView::getItemId)
+                .collect(toSet());
+        List<Long> withoutLast = itemIds.stream()
+                .filter(itemId -> !withLast.contains(itemId))
+                .collect(toList());
+        if (!withoutLast.isEmpty()) {
+            bookings.addAll(archiveRepository.findLastByItemIds(withoutLast));
+        }
+        return bookings;
+    }
+
     @Override
     public Booking getBookingWithUserBookedItem(Long itemId, Long userId) {
-        return repository.findFirstByItemIdAndBookerIdAndEndIsBeforeAndStatus(itemId,
+        Booking booking = repository.findFirstByItemIdAndBookerIdAndEndIsBeforeAndStatus(itemId,
                 userId, LocalDateTime.now(), Status.APPROVED);
+        if (booking == null) {
+            booking = BookingMapper.toBooking(archiveRepository.findFirstByItemIdAndBookerIdAndStatus(itemId, userId,
+                    Status.APPROVED));
+        }
+        return booking;
     }
 }
\ No newline at end of file
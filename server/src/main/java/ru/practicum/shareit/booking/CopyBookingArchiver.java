@@ -0,0 +1,36 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+@Component
+@ConditionalOnProperty(name = "shareit.booking.archive.mode", havingValue = "copy", matchIfMissing = true)
+public class CopyBookingArchiver implements BookingArchiver {
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public CopyBookingArchiver(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public long archive(LocalDateTime endedBefore) {
+        Integer archived = transactionTemplate.execute(status -> {
+            int copied = jdbcTemplate.update("insert into bookings_archive " +
+                    "(id, start_date, end_date, item_id, booker_id, status) " +
+                    "select id, start_date, end_date, item_id, booker_id, status from bookings " +
+                    "where end_date < ?", endedBefore);
+            jdbcTemplate.update("delete from bookings where end_date < ?", endedBefore);
+            return copied;
+        });
+        return archived == null ? 0 : archived;
+    }
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.booking;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+public interface ItemLocks {
+    <T> T execute(Collection<Long> itemIds, Supplier<T> action);
+}
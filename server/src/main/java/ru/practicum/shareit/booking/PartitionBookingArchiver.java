@@ -0,0 +1,30 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+@Component
+@ConditionalOnProperty(name = "shareit.booking.archive.mode", havingValue = "partitions")
+public class PartitionBookingArchiver implements BookingArchiver {
+    private final JdbcTemplate jdbcTemplate;
+    private final int partitionsAhead;
+
+    @Autowired
+    public PartitionBookingArchiver(JdbcTemplate jdbcTemplate,
+                                    @Value("${shareit.booking.archive.partitions-ahead}") int partitionsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.partitionsAhead = partitionsAhead;
+    }
+
+    @Override
+    public long archive(LocalDateTime endedBefore) {
+        Long archived = jdbcTemplate.queryForObject("select shareit_archive_bookings(?, ?)", Long.class,
+                endedBefore, partitionsAhead);
+        return archived == null ? 0 : archived;
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+@Component
+@ConditionalOnProperty(name = "shareit.booking.locks", havingValue = "local", matchIfMissing = true)
+public class StripedItemLocks implements ItemLocks {
+    private final ReentrantLock[] stripes;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public StripedItemLocks(PlatformTransactionManager transactionManager,
+                            @Value("${shareit.booking.lock-stripes}") int stripes) {
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public <T> T execute(Collection<Long> itemIds, Supplier<T> action) {
+        int[] indexes = itemIds.stream()
+                .mapToInt(this::stripe)
+                .distinct()
+                .sorted()
+                .toArray();
+        int locked = 0;
+        try {
+            for (int index : indexes) {
+                stripes[index].lock();
+                locked++;
+            }
+            return transactionTemplate.execute(status -> action.get());
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                stripes[indexes[i]].unlock();
+            }
+        }
+    }
+
+    private int stripe(Long itemId) {
+        int hash = Long.hashCode(itemId);
+        hash ^= hash >>> 16;
+        return Math.floorMod(hash, stripes.length);
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.time.LocalDateTime;
+
+public interface BookingShortView {
+    Long getId();
+
+    Long getItemId();
+
+    Long getBookerId();
+
+    LocalDateTime getStartTime();
+
+    LocalDateTime getEndTime();
+}
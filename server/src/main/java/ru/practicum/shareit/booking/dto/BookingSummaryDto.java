@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BookingSummaryDto {
+    private Long all;
+    private Long current;
+    private Long past;
+    private Long future;
+    private Long waiting;
+    private Long rejected;
+}
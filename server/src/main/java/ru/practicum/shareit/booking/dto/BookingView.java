@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.booking.Status;
+
+import java.time.LocalDateTime;
+
+public interface BookingView {
+    Long getId();
+
+    LocalDateTime getStartTime();
+
+    LocalDateTime getEndTime();
+
+    Status getStatus();
+
+    Long getItemId();
+
+    String getItemName();
+
+    String getItemDescription();
+
+    Boolean getItemAvailable();
+
+    Long getItemOwnerId();
+
+    Long getItemRequestId();
+
+    Long getBookerId();
+
+    String getBookerName();
+
+    String getBookerEmail();
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "booking_outbox")
+public class BookingEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_outbox_seq")
+    @SequenceGenerator(name = "booking_outbox_seq", sequenceName = "booking_outbox_seq", allocationSize = 50)
+    private Long id;
+    @Column(name = "booking_id")
+    private Long bookingId;
+    @Column(name = "item_id")
+    private Long itemId;
+    @Column(name = "owner_id")
+    private Long ownerId;
+    @Column(name = "booker_id")
+    private Long bookerId;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type")
+    private BookingEventType type;
+    private LocalDateTime created;
+    private Integer attempts;
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+}
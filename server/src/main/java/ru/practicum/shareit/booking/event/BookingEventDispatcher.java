@@ -0,0 +1,112 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+
+@Slf4j
+@Component
+public class BookingEventDispatcher {
+    private static final Duration INITIAL_BACKOFF = Duration.ofSeconds(1);
+
+    private final BookingEventRepository repository;
+    private final List<BookingEventListener> listeners;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration claimTimeout;
+    private final Duration maxBackoff;
+
+    @Autowired
+    public BookingEventDispatcher(BookingEventRepository repository, List<BookingEventListener> listeners,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${shareit.outbox.batch-size}") int batchSize,
+                                  @Value("${shareit.outbox.claim-timeout}") Duration claimTimeout,
+                                  @Value("${shareit.outbox.max-backoff}") Duration maxBackoff) {
+        this.repository = repository;
+        this.listeners = listeners;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.claimTimeout = claimTimeout;
+        this.maxBackoff = maxBackoff;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.outbox.poll-interval}")
+    public void dispatch() {
+        List<BookingEvent> events;
+        do {
+            events = transactionTemplate.execute(status -> claimBatch());
+            if (events == null || events.isEmpty()) {
+                return;
+            }
+            List<BookingEvent> failed = new ArrayList<>();
+            for (BookingEvent event : events) {
+                if (!deliver(event)) {
+                    failed.add(event);
+                }
+            }
+            List<BookingEvent> claimed = events;
+            transactionTemplate.executeWithoutResult(status -> complete(claimed, failed));
+        } while (events.size() == batchSize);
+    }
+
+    private List<BookingEvent> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingEvent> events = repository.findNextBatch(now, PageRequest.of(0, batchSize));
+        events.forEach(event -> event.setNextAttemptAt(now.plus(claimTimeout)));
+        return events;
+    }
+
+    private boolean deliver(BookingEvent event) {
+        boolean delivered = true;
+        for (BookingEventListener listener : listeners) {
+            try {
+                listener.onEvent(event);
+            } catch (RuntimeException e) {
+                delivered = false;
+                log.error("Ошибка обработки события с ID={} в {}", event.getId(),
+                        listener.getClass().getSimpleName(), e);
+            }
+        }
+        return delivered;
+    }
+
+    private void complete(List<BookingEvent> events, List<BookingEvent> failed) {
+        Set<Long> failedIds = failed.stream()
+                .map(BookingEvent::getId)
+                .collect(toSet());
+        List<Long> deliveredIds = events.stream()
+                .map(BookingEvent::getId)
+                .filter(id -> !failedIds.contains(id))
+                .collect(toList());
+        if (!deliveredIds.isEmpty()) {
+            repository.deleteAllByIdInBatch(deliveredIds);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (BookingEvent event : failed) {
+            event.setAttempts(event.getAttempts() + 1);
+            event.setNextAttemptAt(now.plus(backoff(event.getAttempts())));
+            log.warn("Событие с ID={} будет повторно обработано после {}, попытка {}", event.getId(),
+                    event.getNextAttemptAt(), event.getAttempts());
+        }
+        repository.saveAll(failed);
+    }
+
+    private Duration backoff(int attempts) {
+        Duration backoff = INITIAL_BACKOFF.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(maxBackoff) < 0 ? backoff : maxBackoff;
+    }
+}
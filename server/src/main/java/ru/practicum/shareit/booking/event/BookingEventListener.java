@@ -0,0 +1,5 @@
+package ru.practicum.shareit.booking.event;
+
+public interface BookingEventListener {
+    void onEvent(BookingEvent event);
+}
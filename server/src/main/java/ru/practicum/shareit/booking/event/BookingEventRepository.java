@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.event;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingEventRepository extends JpaRepository<BookingEvent, Long> {
+    String SKIP_LOCKED = "-2";
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = SKIP_LOCKED))
+    @Query("select e from BookingEvent e where e.nextAttemptAt <= :now order by e.nextAttemptAt, e.id")
+    List<BookingEvent> findNextBatch(@Param("now") LocalDateTime now, Pageable pageable);
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.event;
+
+import ru.practicum.shareit.booking.Status;
+
+public enum BookingEventType {
+    CREATED,
+    APPROVED,
+    REJECTED,
+    CANCELED;
+
+    public static BookingEventType of(Status status) {
+        switch (status) {
+            case APPROVED:
+                return APPROVED;
+            case REJECTED:
+                return REJECTED;
+            case CANCELED:
+                return CANCELED;
+            default:
+                return CREATED;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.booking.event;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.Booking;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+import static java.util.stream.Collectors.toList;
+
+@Component
+public class BookingOutbox {
+    private final BookingEventRepository repository;
+
+    @Autowired
+    public BookingOutbox(BookingEventRepository repository) {
+        this.repository = repository;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Collection<Booking> bookings) {
+        LocalDateTime now = LocalDateTime.now();
+        repository.saveAll(bookings.stream()
+                .map(booking -> new BookingEvent(null, booking.getId(), booking.getItem().getId(),
+                        booking.getItem().getOwner().getId(), booking.getBooker().getId(),
+                        BookingEventType.of(booking.getStatus()), now, 0, now))
+                .collect(toList()));
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class LoggingBookingEventListener implements BookingEventListener {
+    @Override
+    public void onEvent(BookingEvent event) {
+        log.info("Событие {} по бронированию с ID={} вещи с ID={}", event.getType(), event.getBookingId(),
+                event.getItemId());
+    }
+}
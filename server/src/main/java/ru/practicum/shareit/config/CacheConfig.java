@@ -0,0 +1,141 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.item.ItemDetails;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String ITEM_OWNERS = "itemOwners";
+    public static final String BOOKING_SUMMARY = "bookingSummary";
+    public static final String ITEM_AVAILABILITY = "itemAvailability";
+    public static final String ITEM_SEARCH = "itemSearch";
+    public static final String ITEM_DETAILS = "itemDetails";
+
+    private static final int OBJECT_OVERHEAD = 64;
+
+    @Bean
+    public CacheManager cacheManager(@Value("${shareit.cache.item-owners.maximum-size}") long itemOwnersSize,
+                                     @Value("${shareit.cache.item-owners.ttl}") Duration itemOwnersTtl,
+                                     @Value("${shareit.cache.booking-summary.enabled}") boolean bookingSummaryEnabled,
+                                     @Value("${shareit.cache.booking-summary.maximum-size}") long bookingSummarySize,
+                                     @Value("${shareit.cache.booking-summary.ttl}") Duration bookingSummaryTtl,
+                                     @Value("${shareit.cache.item-availability.maximum-size}")
+                                     long itemAvailabilitySize,
+                                     @Value("${shareit.cache.item-availability.ttl}") Duration itemAvailabilityTtl,
+                                     @Value("${shareit.cache.item-search.maximum-weight}") long itemSearchWeight,
+                                     @Value("${shareit.cache.item-search.ttl}") Duration itemSearchTtl,
+                                     @Value("${shareit.cache.item-details.maximum-size}") long itemDetailsSize,
+                                     @Value("${shareit.cache.item-details.ttl}") Duration itemDetailsTtl) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCacheNames(List.of());
+        cacheManager.registerCustomCache(ITEM_OWNERS, Caffeine.newBuilder()
+                .maximumSize(itemOwnersSize)
+                .expireAfterWrite(itemOwnersTtl)
+                .recordStats()
+                .build());
+        if (bookingSummaryEnabled) {
+            cacheManager.registerCustomCache(BOOKING_SUMMARY, Caffeine.newBuilder()
+                    .maximumSize(bookingSummarySize)
+                    .expireAfterWrite(bookingSummaryTtl)
+                    .recordStats()
+                    .build());
+        }
+        cacheManager.registerCustomCache(ITEM_AVAILABILITY, Caffeine.newBuilder()
+                .maximumSize(itemAvailabilitySize)
+                .expireAfterWrite(itemAvailabilityTtl)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(ITEM_SEARCH, Caffeine.newBuilder()
+                .maximumWeight(itemSearchWeight)
+                .weigher((key, value) -> weigh(value))
+                .expireAfterWrite(itemSearchTtl)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(ITEM_DETAILS, Caffeine.newBuilder()
+                .maximumSize(itemDetailsSize)
+                .expireAfter(untilValid(itemDetailsTtl))
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+
+    @Bean
+    public MeterBinder itemSearchCacheWeight(CacheManager cacheManager) {
+        CaffeineCache cache = (CaffeineCache) cacheManager.getCache(ITEM_SEARCH);
+        return registry -> Gauge.builder("cache.weight", cache, itemSearch -> itemSearch.getNativeCache().policy()
+                        .eviction()
+                        .map(eviction -> eviction.weightedSize().orElse(0L))
+                        .orElse(0L))
+                .tag("cache", ITEM_SEARCH)
+                .description("Примерный объем памяти, занятый результатами поиска, в байтах")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private static Expiry<Object, Object> untilValid(Duration ttl) {
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(Object key, Object value, long currentTime) {
+                return remaining(value, ttl);
+            }
+
+            @Override
+            public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+                return remaining(value, ttl);
+            }
+
+            @Override
+            public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+
+    private static long remaining(Object value, Duration ttl) {
+        if (!(value instanceof ItemDetails) || ((ItemDetails) value).getValidUntil() == null) {
+            return ttl.toNanos();
+        }
+        Duration remaining = Duration.between(LocalDateTime.now(), ((ItemDetails) value).getValidUntil());
+        return remaining.compareTo(ttl) < 0 ? Math.max(0, remaining.toNanos()) : ttl.toNanos();
+    }
+
+    private static int weigh(Object value) {
+        if (!(value instanceof List)) {
+            return OBJECT_OVERHEAD;
+        }
+        long weight = OBJECT_OVERHEAD;
+        for (Object element : (List<?>) value) {
+            if (element instanceof ItemDto) {
+                ItemDto item = (ItemDto) element;
+                weight += OBJECT_OVERHEAD + 2L * (length(item.getName()) + length(item.getDescription()));
+                if (item.getComments() != null) {
+                    for (CommentDto comment : item.getComments()) {
+                        weight += OBJECT_OVERHEAD + 2L * (length(comment.getText()) + length(comment.getAuthorName()));
+                    }
+                }
+            }
+        }
+        return (int) Math.min(weight, Integer.MAX_VALUE);
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
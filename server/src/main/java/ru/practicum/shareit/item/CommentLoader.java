@@ -0,0 +1,45 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+import ru.practicum.shareit.item.dto.ItemComments;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+@Component
+@RequestScope
+public class CommentLoader {
+    private final LatestComments latestComments;
+    private final Map<Long, ItemComments> loaded = new HashMap<>();
+    private final Set<Long> pending = new HashSet<>();
+
+    @Autowired
+    public CommentLoader(LatestComments latestComments) {
+        this.latestComments = latestComments;
+    }
+
+    public void prime(Collection<Long> itemIds) {
+        itemIds.stream()
+                .filter(itemId -> !loaded.containsKey(itemId))
+                .forEach(pending::add);
+    }
+
+    public ItemComments load(Long itemId) {
+        if (!loaded.containsKey(itemId)) {
+            pending.add(itemId);
+            dispatch();
+        }
+        return loaded.get(itemId);
+    }
+
+    private void dispatch() {
+        Map<Long, ItemComments> comments = latestComments.fetch(pending);
+        pending.forEach(itemId -> loaded.put(itemId, comments.getOrDefault(itemId, ItemComments.empty())));
+        pending.clear();
+    }
+}
@@ -1,10 +1,44 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.CommentCountView;
+import ru.practicum.shareit.item.dto.CommentView;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    String VIEW = "select c.id as id, c.text as text, c.item.id as itemId, a.name as authorName, " +
+            "c.created as created from Comment c join c.author a ";
+
     List<Comment> findAllByItemId(Long itemId, Sort sort);
-}
\ No newline at end of file
+
+    @Query(value = "select t.id as id, t.text_comment as text, t.item_id as itemId, t.name as authorName, " +
+            "t.created as created " +
+            "from (select c.id, c.text_comment, c.item_id, u.name, c.created, " +
+            "      row_number() over (partition by c.item_id order by c.created desc, c.id desc) as rn " +
+            "      from comments c join users u on u.id = c.author_id " +
+            "      where c.item_id in (:itemIds)) t " +
+            "where t.rn <= :limit " +
+            "order by t.created desc, t.id desc", nativeQuery = true)
+    List<CommentView> findLatestViewsByItemIdIn(@Param("itemIds") Collection<Long> itemIds,
+                                                @Param("limit") int limit);
+
+    @Query("select c.item.id as itemId, count(c) as count from Comment c where c.item.id in :itemIds " +
+            "group by c.item.id")
+    List<CommentCountView> countByItemIdIn(@Param("itemIds") Collection<Long> itemIds);
+
+    @Query(VIEW + "where c.item.id = :itemId order by c.created desc, c.id desc")
+    List<CommentView> findViewsByItemId(@Param("itemId") Long itemId, Pageable pageable);
+
+    @Query(VIEW + "where c.item.id = :itemId and (c.created < :created or (c.created = :created and c.id < :id)) " +
+            "order by c.created desc, c.id desc")
+    List<CommentView> findViewsByItemIdBeforeCursor(@Param("itemId") Long itemId,
+                                                    @Param("created") LocalDateTime created,
+                                                    @Param("id") Long id, Pageable pageable);
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.util.OffsetLimitPageable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "shareit.item.search", havingValue = "database")
+public class DatabaseItemSearch implements ItemSearch {
+    private final ItemRepository repository;
+    private final boolean trigrams;
+
+    @Autowired
+    public DatabaseItemSearch(ItemRepository repository, @Value("${spring.sql.init.platform}") String platform) {
+        this.repository = repository;
+        this.trigrams = "postgresql".equals(platform);
+    }
+
+    @Override
+    public List<Item> search(String text, Integer from, Integer size, boolean relevance) {
+        List<Item> items = new ArrayList<>();
+        Pageable pageable = OffsetLimitPageable.of(from, size,
+                relevance ? Sort.unsorted() : Sort.by(Sort.Direction.ASC, "name"));
+        Slice<Item> page;
+
+        do {
+            page = relevance ? searchByRelevance(text.toLowerCase(), pageable)
+                    : repository.getItemsBySearchQuery(text.toLowerCase(), pageable);
+            items.addAll(page.getContent());
+            pageable = page.nextPageable();
+        } while (size == null && page.hasNext());
+        return items;
+    }
+
+    private Slice<Item> searchByRelevance(String text, Pageable pageable) {
+        return trigrams ? repository.getItemsBySearchQueryBySimilarity(text, pageable)
+                : repository.getItemsBySearchQueryByRelevance(text, pageable);
+    }
+
+    @Override
+    public void put(Item item) {
+    }
+
+    @Override
+    public void remove(Long itemId) {
+    }
+}
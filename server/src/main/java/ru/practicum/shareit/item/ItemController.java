@@ -1,11 +1,22 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.util.KeysetCursor;
+import ru.practicum.shareit.util.NdjsonResponses;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Slf4j
@@ -13,11 +24,15 @@ import java.util.List;
 @RequestMapping("/items")
 public class ItemController {
     private static final String OWNER = "X-Sharer-User-Id";
+    private static final String NEXT_CURSOR = "X-Next-Cursor";
+    private static final String TEXT_CSV = "text/csv";
     private final ItemService itemService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public ItemController(ItemService itemService) {
+    public ItemController(ItemService itemService, ObjectMapper objectMapper) {
         this.itemService = itemService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping("/{itemId}")
@@ -33,6 +48,20 @@ public class ItemController {
         return itemService.create(itemDto, ownerId);
     }
 
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ItemImportResultDto importItemsFromNdjson(InputStream body, @RequestHeader(OWNER) Long ownerId) {
+        log.info("Получен POST-запрос к эндпоинту: '/items/import' на импорт вещей из NDJSON владельцем с ID={}",
+                ownerId);
+        return itemService.importItems(ownerId, ItemImportFormat.NDJSON, body);
+    }
+
+    @PostMapping(path = "/import", consumes = TEXT_CSV)
+    public ItemImportResultDto importItemsFromCsv(InputStream body, @RequestHeader(OWNER) Long ownerId) {
+        log.info("Получен POST-запрос к эндпоинту: '/items/import' на импорт вещей из CSV владельцем с ID={}",
+                ownerId);
+        return itemService.importItems(ownerId, ItemImportFormat.CSV, body);
+    }
+
     @GetMapping
     public List<ItemDto> getItemsByOwner(@RequestHeader(OWNER) Long ownerId,
                                          @RequestParam(defaultValue = "0") Integer from,
@@ -41,6 +70,26 @@ public class ItemController {
         return itemService.getItemsByOwner(ownerId, from, size);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getItemAvailability(@PathVariable Long itemId, @RequestHeader(OWNER) Long userId,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                   LocalDateTime from,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                   LocalDateTime to) {
+        log.info("Получен GET-запрос к эндпоинту: '/items/{}/availability' на получение занятости вещи " +
+                "с {} по {}", itemId, from, to);
+        return itemService.getItemAvailability(itemId, userId, from, to);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamItemsByOwner(@RequestHeader(OWNER) Long ownerId,
+                                                                    @RequestParam(defaultValue = "0") Integer from,
+                                                                    @RequestParam(required = false) Integer size) {
+        log.info("Получен GET-запрос к эндпоинту: '/items' на потоковую выгрузку вещей владельца с ID={}", ownerId);
+        return NdjsonResponses.<ItemDto>of(objectMapper,
+                action -> itemService.streamItemsByOwner(ownerId, from, size, action));
+    }
+
     @ResponseBody
     @PatchMapping("/{itemId}")
     public ItemDto update(@RequestBody ItemDto itemDto, @PathVariable Long itemId,
@@ -58,9 +107,27 @@ public class ItemController {
     @GetMapping("/search")
     public List<ItemDto> getItemsBySearchQuery(@RequestParam String text,
                                                @RequestParam(defaultValue = "0") Integer from,
-                                               @RequestParam(required = false) Integer size) {
+                                               @RequestParam(required = false) Integer size,
+                                               @RequestParam(defaultValue = "NAME") String sort) {
         log.info("Получен GET-запрос к эндпоинту: '/items/search' на поиск вещи с текстом={}", text);
-        return itemService.getItemsBySearchQuery(text, from, size);
+        return itemService.getItemsBySearchQuery(text, from, size, sort);
+    }
+
+    @GetMapping("/suggest")
+    public List<String> suggestNames(@RequestParam String prefix, @RequestParam(defaultValue = "10") Integer limit) {
+        log.info("Получен GET-запрос к эндпоинту: '/items/suggest' на получение подсказок по префиксу={}", prefix);
+        return itemService.suggestNames(prefix, limit);
+    }
+
+    @GetMapping(path = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamItemsBySearchQuery(@RequestParam String text,
+                                                                          @RequestParam(defaultValue = "0") Integer from,
+                                                                          @RequestParam(required = false) Integer size,
+                                                                          @RequestParam(defaultValue = "NAME")
+                                                                          String sort) {
+        log.info("Получен GET-запрос к эндпоинту: '/items/search' на потоковый поиск вещи с текстом={}", text);
+        return NdjsonResponses.<ItemDto>of(objectMapper,
+                action -> itemService.streamItemsBySearchQuery(text, from, size, sort, action));
     }
 
     @ResponseBody
@@ -71,4 +138,19 @@ public class ItemController {
                 " добавление отзыва пользователем с ID={}", userId);
         return itemService.createComment(commentDto, itemId, userId);
     }
+
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<List<CommentDto>> getComments(@PathVariable Long itemId, @RequestHeader(OWNER) Long userId,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam(defaultValue = "20") Integer size) {
+        log.info("Получен GET-запрос к эндпоинту: '/items/{}/comments' на получение отзывов о вещи", itemId);
+        List<CommentDto> comments = itemService.getComments(itemId, userId, cursor, size);
+        if (comments.size() < size) {
+            return ResponseEntity.ok(comments);
+        }
+        CommentDto last = comments.get(comments.size() - 1);
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR, new KeysetCursor(last.getCreated(), last.getId()).encode())
+                .body(comments);
+    }
 }
\ No newline at end of file
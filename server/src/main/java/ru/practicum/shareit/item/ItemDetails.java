@@ -0,0 +1,34 @@
+package ru.practicum.shareit.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.item.dto.ItemComments;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+@Getter
+@AllArgsConstructor
+public class ItemDetails {
+    private final Long id;
+    private final String name;
+    private final String description;
+    private final Boolean available;
+    private final Long ownerId;
+    private final Long requestId;
+    private final BookingShortDto lastBooking;
+    private final BookingShortDto nextBooking;
+    private final ItemComments comments;
+    private final LocalDateTime validUntil;
+
+    public ItemDto toItemDto(Long userId) {
+        boolean owner = ownerId.equals(userId);
+        return new ItemDto(id, name, description, available, null, requestId,
+                owner ? lastBooking : null,
+                owner ? nextBooking : null,
+                comments.getCount(),
+                new ArrayList<>(comments.getLatest()));
+    }
+}
@@ -0,0 +1,244 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.user.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+@Slf4j
+@Component
+public class ItemImporter {
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final int MAX_DESCRIPTION_LENGTH = 512;
+
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxErrors;
+
+    @Autowired
+    public ItemImporter(ObjectMapper objectMapper, EntityManager entityManager,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${shareit.item.import.batch-size}") int batchSize,
+                        @Value("${shareit.item.import.max-errors}") int maxErrors) {
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+    }
+
+    public ItemImportResultDto importItems(User owner, ItemImportFormat format, Reader source,
+                                           Consumer<Item> imported) throws IOException {
+        ItemImportResultDto result = new ItemImportResultDto();
+        List<Row> chunk = new ArrayList<>(batchSize);
+        BufferedReader reader = new BufferedReader(source);
+        Map<String, Integer> columns = null;
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == ItemImportFormat.CSV && columns == null) {
+                columns = csvColumns(line);
+                continue;
+            }
+            try {
+                ItemDto item = format == ItemImportFormat.CSV ? fromCsv(columns, line) : fromJson(line);
+                validate(item);
+                chunk.add(new Row(lineNumber, item));
+            } catch (InvalidRowException e) {
+                reject(result, lineNumber, e.getMessage());
+            }
+            if (chunk.size() >= batchSize) {
+                flush(owner, chunk, result, imported);
+            }
+        }
+        flush(owner, chunk, result, imported);
+        log.info("Пользователь с ID={} импортировал {} вещей, отклонено строк: {}", owner.getId(),
+                result.getImported(), result.getFailed());
+        return result;
+    }
+
+    private void flush(User owner, List<Row> chunk, ItemImportResultDto result, Consumer<Item> imported) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            List<Item> items = transactionTemplate.execute(status -> insert(owner, chunk));
+            items.forEach(imported);
+            result.setImported(result.getImported() + items.size());
+        } catch (DataAccessException | PersistenceException e) {
+            entityManager.clear();
+            String reason = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            log.warn("Не удалось сохранить пакет из {} вещей: {}", chunk.size(), reason);
+            chunk.forEach(row -> reject(result, row.line, "Не удалось сохранить вещь: " + reason));
+        }
+        chunk.clear();
+    }
+
+    private List<Item> insert(User owner, List<Row> chunk) {
+        List<Item> items = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            Item item = new Item(null, row.item.getName(), row.item.getDescription(), row.item.getAvailable(),
+                    owner, row.item.getRequestId());
+            entityManager.persist(item);
+            items.add(item);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return items;
+    }
+
+    private void reject(ItemImportResultDto result, long line, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < maxErrors) {
+            result.getErrors().add(new ItemImportErrorDto(line, message));
+        }
+    }
+
+    private ItemDto fromJson(String line) {
+        try {
+            return objectMapper.readValue(line, ItemDto.class);
+        } catch (JsonProcessingException e) {
+            throw new InvalidRowException("Некорректный JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private Map<String, Integer> csvColumns(String header) {
+        List<String> names;
+        try {
+            names = splitCsv(header);
+        } catch (InvalidRowException e) {
+            throw new ValidationException("Некорректный заголовок CSV: " + e.getMessage());
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of("name", "description", "available")) {
+            if (!columns.containsKey(required)) {
+                throw new ValidationException("В заголовке CSV нет столбца " + required + "!");
+            }
+        }
+        return columns;
+    }
+
+    private ItemDto fromCsv(Map<String, Integer> columns, String line) {
+        List<String> values = splitCsv(line);
+        String available = column(columns, values, "available");
+        String requestId = column(columns, values, "requestid");
+        try {
+            return new ItemDto(null, column(columns, values, "name"), column(columns, values, "description"),
+                    available == null || available.isBlank() ? null : parseBoolean(available), null,
+                    requestId == null || requestId.isBlank() ? null : Long.valueOf(requestId.trim()),
+                    null, null, null, null);
+        } catch (NumberFormatException e) {
+            throw new InvalidRowException("Некорректный ID запроса: " + requestId);
+        }
+    }
+
+    private static String column(Map<String, Integer> columns, List<String> values, String name) {
+        Integer index = columns.get(name);
+        return index == null || index >= values.size() ? null : values.get(index);
+    }
+
+    private static Boolean parseBoolean(String value) {
+        switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "true":
+                return true;
+            case "false":
+                return false;
+            default:
+                throw new InvalidRowException("Некорректное значение доступности: " + value);
+        }
+    }
+
+    private static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            throw new InvalidRowException("Незакрытые кавычки в строке CSV!");
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private static void validate(ItemDto item) {
+        if (item.getName() == null || item.getName().isBlank()) {
+            throw new InvalidRowException("Название вещи не может быть пустым!");
+        }
+        if (item.getDescription() == null || item.getDescription().isBlank()) {
+            throw new InvalidRowException("Описание вещи не может быть пустым!");
+        }
+        if (item.getAvailable() == null) {
+            throw new InvalidRowException("Не указана доступность вещи!");
+        }
+        if (item.getName().length() > MAX_NAME_LENGTH || item.getDescription().length() > MAX_DESCRIPTION_LENGTH) {
+            throw new InvalidRowException("Название или описание вещи слишком длинное!");
+        }
+    }
+
+    private static final class InvalidRowException extends RuntimeException {
+        InvalidRowException(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    private static final class Row {
+        private final long line;
+        private final ItemDto item;
+
+        Row(long line, ItemDto item) {
+            this.line = line;
+            this.item = item;
+        }
+    }
+}
@@ -2,39 +2,56 @@ package ru.practicum.shareit.item;
 
 import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentView;
+import ru.practicum.shareit.item.dto.ItemComments;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.User;
 
-import java.util.List;
-
 @UtilityClass
 public class ItemMapper {
 
-    public ItemDto toItemDto(Item item, List<CommentDto> comments) {
+    public ItemDto toItemDto(Item item, ItemComments comments) {
         return new ItemDto(
                 item.getId(),
                 item.getName(),
                 item.getDescription(),
                 item.getAvailable(),
-                item.getOwner(),
+                item.getOwner().getId(),
                 item.getRequestId() != null ? item.getRequestId() : null,
                 null,
                 null,
-                comments);
+                comments.getCount(),
+                comments.getLatest());
     }
 
-    public ItemDto toItemExtDto(Item item, BookingShortDto lastBooking, BookingShortDto nextBooking, List<CommentDto> comments) {
+    public ItemDto toItemExtDto(Item item, BookingShortDto lastBooking, BookingShortDto nextBooking, ItemComments comments) {
         return new ItemDto(
                 item.getId(),
                 item.getName(),
                 item.getDescription(),
                 item.getAvailable(),
-                item.getOwner(),
+                item.getOwner().getId(),
                 item.getRequestId() != null ? item.getRequestId() : null,
                 lastBooking,
                 nextBooking,
-                comments);
+                comments.getCount(),
+                comments.getLatest());
+    }
+
+    public ItemDto toItemDto(BookingView booking, ItemComments comments) {
+        return new ItemDto(
+                booking.getItemId(),
+                booking.getItemName(),
+                booking.getItemDescription(),
+                booking.getItemAvailable(),
+                booking.getItemOwnerId(),
+                booking.getItemRequestId(),
+                null,
+                null,
+                comments.getCount(),
+                comments.getLatest());
     }
 
     public Item toItem(ItemDto itemDto, User owner) {
@@ -52,8 +69,17 @@ public class ItemMapper {
         return new CommentDto(
                 comment.getId(),
                 comment.getText(),
-                comment.getItem(),
+                comment.getItem().getId(),
                 comment.getAuthor().getName(),
                 comment.getCreated());
     }
+
+    public CommentDto toCommentDto(CommentView comment) {
+        return new CommentDto(
+                comment.getId(),
+                comment.getText(),
+                comment.getItemId(),
+                comment.getAuthorName(),
+                comment.getCreated());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,378 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.dto.ItemNameView;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+
+@Slf4j
+@Component
+public class ItemNameTrie {
+    private static final int MIN_REBUILD_CHANGES = 1_000;
+
+    private final ItemRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, String> pending = new LinkedHashMap<>();
+    private Names index = new Names();
+    private boolean building;
+    private boolean rebuildRequested;
+    private volatile boolean ready;
+
+    @Autowired
+    public ItemNameTrie(ItemRepository repository, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${shareit.item.index.rebuild-interval}",
+            fixedDelayString = "${shareit.item.index.rebuild-interval}")
+    public synchronized void build() {
+        lock.writeLock().lock();
+        try {
+            building = true;
+            rebuildRequested = false;
+            pending.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Names built = null;
+        try {
+            built = transactionTemplate.execute(status -> load());
+        } finally {
+            lock.writeLock().lock();
+            try {
+                building = false;
+                if (built != null) {
+                    pending.forEach(built::put);
+                    index = built;
+                    ready = true;
+                }
+                pending.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("Индекс подсказок построен: {} названий вещей, {} узлов", built.keys.size(), built.tree.nodes);
+    }
+
+    private Names load() {
+        Map<Long, String> names = new LinkedHashMap<>();
+        try (Stream<ItemNameView> items = repository.streamNamesByAvailableTrue()) {
+            items.forEach(item -> names.put(item.getId(), item.getName()));
+        }
+        return Names.of(names);
+    }
+
+    public void put(Item item) {
+        String name = Boolean.TRUE.equals(item.getAvailable()) ? item.getName() : null;
+        lock.writeLock().lock();
+        try {
+            index.put(item.getId(), name);
+            if (building) {
+                pending.put(item.getId(), name);
+            }
+            requestRebuildIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            index.put(itemId, null);
+            if (building) {
+                pending.put(itemId, null);
+            }
+            requestRebuildIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        if (!ready) {
+            return repository.findByAvailableTrueAndNameStartsWithIgnoreCase(prefix,
+                            PageRequest.of(0, limit, Sort.by(Sort.Direction.ASC, "name"))).stream()
+                    .map(Item::getName)
+                    .distinct()
+                    .collect(toList());
+        }
+        List<String> result = new ArrayList<>(limit);
+        lock.readLock().lock();
+        try {
+            index.suggest(prefix, limit, result);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    private void requestRebuildIfNeeded() {
+        if (!building && !rebuildRequested && index.needsRebuild()) {
+            rebuildRequested = true;
+            CompletableFuture.runAsync(this::build);
+        }
+    }
+
+    private static String lower(String text) {
+        char[] chars = new char[text.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(text.charAt(i));
+        }
+        return new String(chars);
+    }
+
+    private static final class Names {
+        private final Map<Long, String> keys = new HashMap<>();
+        private final TreeMap<String, Entry> added = new TreeMap<>();
+        private final RadixTree tree;
+        private int emptied;
+
+        Names() {
+            this(new TreeMap<>());
+        }
+
+        private Names(SortedMap<String, Entry> entries) {
+            this.tree = new RadixTree(entries);
+        }
+
+        static Names of(Map<Long, String> names) {
+            TreeMap<String, Entry> entries = new TreeMap<>();
+            names.forEach((itemId, name) -> entries.computeIfAbsent(lower(name), key -> new Entry(name)).count++);
+            Names loaded = new Names(entries);
+            names.forEach((itemId, name) -> loaded.keys.put(itemId, lower(name)));
+            return loaded;
+        }
+
+        void put(Long itemId, String name) {
+            remove(itemId);
+            if (name == null) {
+                return;
+            }
+            String key = lower(name);
+            keys.put(itemId, key);
+            int entry = tree.find(key);
+            if (entry < 0) {
+                added.computeIfAbsent(key, k -> new Entry(name)).count++;
+            } else if (tree.counts[entry]++ == 0) {
+                tree.names[entry] = name;
+                emptied--;
+            }
+        }
+
+        void remove(Long itemId) {
+            String key = keys.remove(itemId);
+            if (key == null) {
+                return;
+            }
+            int entry = tree.find(key);
+            if (entry >= 0) {
+                if (--tree.counts[entry] == 0) {
+                    emptied++;
+                }
+            } else if (--added.get(key).count == 0) {
+                added.remove(key);
+            }
+        }
+
+        boolean needsRebuild() {
+            return added.size() + emptied > Math.max(MIN_REBUILD_CHANGES, tree.names.length / 10);
+        }
+
+        void suggest(String prefix, int limit, List<String> result) {
+            tree.collect(prefix, limit, result);
+            if (added.isEmpty()) {
+                return;
+            }
+            String key = lower(prefix);
+            Collection<Entry> extra = added.subMap(key, key + Character.MAX_VALUE).values();
+            if (extra.isEmpty()) {
+                return;
+            }
+            List<String> merged = new ArrayList<>(result);
+            extra.forEach(entry -> merged.add(entry.name));
+            merged.sort(Comparator.comparing(ItemNameTrie::lower));
+            result.clear();
+            result.addAll(merged.subList(0, Math.min(limit, merged.size())));
+        }
+    }
+
+    private static final class Entry {
+        private final String name;
+        private int count;
+
+        Entry(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * Неизменяемое сжатое префиксное дерево: метки ребер хранятся как смещения в общем массиве символов ключей,
+     * дети узла лежат подряд и упорядочены по первому символу метки.
+     */
+    private static final class RadixTree {
+        private final char[] text;
+        private final int[] keyStart;
+        private final String[] names;
+        private final int[] counts;
+        private final int[] labelStart;
+        private final int[] labelEnd;
+        private final int[] firstChild;
+        private final int[] childCount;
+        private final int[] entry;
+        private int nodes = 1;
+
+        RadixTree(SortedMap<String, Entry> entries) {
+            int size = entries.size();
+            keyStart = new int[size + 1];
+            names = new String[size];
+            counts = new int[size];
+            StringBuilder keys = new StringBuilder();
+            int key = 0;
+            for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                keyStart[key] = keys.length();
+                names[key] = e.getValue().name;
+                counts[key++] = e.getValue().count;
+                keys.append(e.getKey());
+            }
+            keyStart[size] = keys.length();
+            text = keys.toString().toCharArray();
+            int capacity = 2 * size + 1;
+            labelStart = new int[capacity];
+            labelEnd = new int[capacity];
+            firstChild = new int[capacity];
+            childCount = new int[capacity];
+            entry = new int[capacity];
+            fill(0, 0, size, 0);
+        }
+
+        int find(String key) {
+            int node = locate(key);
+            if (node < 0) {
+                return -1;
+            }
+            int found = entry[node];
+            return found >= 0 && keyStart[found + 1] - keyStart[found] == key.length() ? found : -1;
+        }
+
+        void collect(String prefix, int limit, List<String> result) {
+            int node = locate(prefix);
+            if (node >= 0) {
+                collect(node, limit, result);
+            }
+        }
+
+        private void collect(int node, int limit, List<String> result) {
+            int found = entry[node];
+            if (found >= 0 && counts[found] > 0) {
+                result.add(names[found]);
+            }
+            int end = firstChild[node] + childCount[node];
+            for (int child = firstChild[node]; child < end && result.size() < limit; child++) {
+                collect(child, limit, result);
+            }
+        }
+
+        private int locate(String prefix) {
+            int node = 0;
+            int i = 0;
+            while (i < prefix.length()) {
+                node = child(node, Character.toLowerCase(prefix.charAt(i)));
+                if (node < 0) {
+                    return -1;
+                }
+                for (int p = labelStart[node]; p < labelEnd[node] && i < prefix.length(); p++, i++) {
+                    if (text[p] != Character.toLowerCase(prefix.charAt(i))) {
+                        return -1;
+                    }
+                }
+            }
+            return node;
+        }
+
+        private int child(int node, char key) {
+            int low = firstChild[node];
+            int high = low + childCount[node] - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                char label = text[labelStart[middle]];
+                if (label < key) {
+                    low = middle + 1;
+                } else if (label > key) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -1;
+        }
+
+        private void fill(int node, int from, int to, int depth) {
+            entry[node] = -1;
+            if (from < to && keyStart[from + 1] - keyStart[from] == depth) {
+                entry[node] = from++;
+            }
+            int groups = 0;
+            for (int i = from; i < to; i = groupEnd(i, to, depth)) {
+                groups++;
+            }
+            firstChild[node] = nodes;
+            childCount[node] = groups;
+            int child = nodes;
+            nodes += groups;
+            for (int i = from; i < to; child++) {
+                int end = groupEnd(i, to, depth);
+                int common = commonPrefix(i, end - 1, depth);
+                labelStart[child] = keyStart[i] + depth;
+                labelEnd[child] = keyStart[i] + common;
+                fill(child, i, end, common);
+                i = end;
+            }
+        }
+
+        private int groupEnd(int from, int to, int depth) {
+            char first = text[keyStart[from] + depth];
+            int end = from + 1;
+            while (end < to && text[keyStart[end] + depth] == first) {
+                end++;
+            }
+            return end;
+        }
+
+        private int commonPrefix(int first, int last, int depth) {
+            int length = Math.min(keyStart[first + 1] - keyStart[first], keyStart[last + 1] - keyStart[last]);
+            int common = depth;
+            while (common < length && text[keyStart[first] + common] == text[keyStart[last] + common]) {
+                common++;
+            }
+            return common;
+        }
+    }
+}
@@ -1,23 +1,70 @@
 package ru.practicum.shareit.item;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.ItemNameView;
+import ru.practicum.shareit.util.StreamBatches;
 
+import javax.persistence.QueryHint;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    Page<Item> findByOwnerId(Long ownerId, Pageable pageable);
+    String SEARCH_QUERY = "select i from Item i " +
+            "where (lower(i.name) like lower(concat('%', :search, '%')) " +
+            " or lower(i.description) like lower(concat('%', :search, '%')))" +
+            " and i.available = true";
+    String RELEVANCE_ORDER = " order by case when lower(i.name) like lower(concat('%', :search, '%')) then 0 else 1 end," +
+            " i.name, i.id";
+
+    Slice<Item> findByOwnerId(Long ownerId, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = StreamBatches.FETCH_SIZE))
+    Stream<Item> streamByOwnerId(Long ownerId, Sort sort);
+
+    @Query(SEARCH_QUERY)
+    Slice<Item> getItemsBySearchQuery(@Param("search") String text, Pageable pageable);
+
+    @Query(SEARCH_QUERY + RELEVANCE_ORDER)
+    Slice<Item> getItemsBySearchQueryByRelevance(@Param("search") String text, Pageable pageable);
 
-    @Query("select i from Item i " +
+    @Query(value = "select * from items i " +
             "where (lower(i.name) like lower(concat('%', :search, '%')) " +
             " or lower(i.description) like lower(concat('%', :search, '%')))" +
-            " and i.available = true")
-    Page<Item> getItemsBySearchQuery(@Param("search") String text, Pageable pageable);
+            " and i.available = true " +
+            "order by similarity(lower(i.name), lower(:search)) desc, i.name, i.id", nativeQuery = true)
+    Slice<Item> getItemsBySearchQueryBySimilarity(@Param("search") String text, Pageable pageable);
+
+    @Query(SEARCH_QUERY)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = StreamBatches.FETCH_SIZE))
+    Stream<Item> streamItemsBySearchQuery(@Param("search") String text, Sort sort);
+
+    @Query(SEARCH_QUERY + RELEVANCE_ORDER)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = StreamBatches.FETCH_SIZE))
+    Stream<Item> streamItemsBySearchQueryByRelevance(@Param("search") String text);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = StreamBatches.FETCH_SIZE))
+    Stream<Item> streamByAvailableTrue();
+
+    @Query("select i.id as id, i.name as name from Item i where i.available = true")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = StreamBatches.FETCH_SIZE))
+    Stream<ItemNameView> streamNamesByAvailableTrue();
+
+    List<Item> findByAvailableTrueAndNameStartsWithIgnoreCase(String prefix, Pageable pageable);
 
     List<Item> findAllByRequestId(Long requestId, Sort sort);
 
+    List<Item> findAllByRequestIdIn(Collection<Long> requestIds, Sort sort);
+
+    boolean existsByIdAndOwnerId(Long id, Long ownerId);
+
 }
\ No newline at end of file
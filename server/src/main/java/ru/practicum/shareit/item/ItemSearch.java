@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item;
+
+import java.util.List;
+
+public interface ItemSearch {
+    List<Item> search(String text, Integer from, Integer size, boolean relevance);
+
+    void put(Item item);
+
+    void remove(Long itemId);
+}
@@ -0,0 +1,502 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.item.search", havingValue = "memory", matchIfMissing = true)
+public class ItemSearchIndex implements ItemSearch {
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MAX_GRAM = 3;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int NAME_WEIGHT = 2;
+    private static final int MIN_REBUILD_CHANGES = 10_000;
+
+    private final ItemRepository repository;
+    private final DatabaseItemSearch fallback;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Item> pending = new LinkedHashMap<>();
+    private Index index = new Index();
+    private boolean building;
+    private boolean rebuildRequested;
+    private volatile boolean ready;
+
+    @Autowired
+    public ItemSearchIndex(ItemRepository repository, EntityManager entityManager,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${spring.sql.init.platform}") String platform) {
+        this.repository = repository;
+        this.fallback = new DatabaseItemSearch(repository, platform);
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${shareit.item.index.rebuild-interval}",
+            fixedDelayString = "${shareit.item.index.rebuild-interval}")
+    public synchronized void build() {
+        lock.writeLock().lock();
+        try {
+            building = true;
+            rebuildRequested = false;
+            pending.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Index built = null;
+        try {
+            built = transactionTemplate.execute(status -> load());
+        } finally {
+            lock.writeLock().lock();
+            try {
+                building = false;
+                if (built != null) {
+                    pending.forEach(built::put);
+                    index = built;
+                    ready = true;
+                }
+                pending.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("Поисковый индекс вещей построен: {} вещей, {} n-грамм", built.count(), built.gramCount());
+    }
+
+    private Index load() {
+        List<Document> loaded = new ArrayList<>();
+        try (Stream<Item> items = repository.streamByAvailableTrue()) {
+            items.forEach(item -> {
+                loaded.add(new Document(item));
+                entityManager.detach(item);
+            });
+        }
+        return Index.of(loaded);
+    }
+
+    @Override
+    public void put(Item item) {
+        lock.writeLock().lock();
+        try {
+            index.put(item.getId(), item);
+            if (building) {
+                pending.put(item.getId(), item);
+            }
+            requestRebuildIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            index.put(itemId, null);
+            if (building) {
+                pending.put(itemId, null);
+            }
+            requestRebuildIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void requestRebuildIfNeeded() {
+        if (!building && !rebuildRequested && index.needsRebuild()) {
+            rebuildRequested = true;
+            CompletableFuture.runAsync(this::build);
+        }
+    }
+
+    @Override
+    public List<Item> search(String text, Integer from, Integer size, boolean relevance) {
+        List<Long> itemIds = ready ? searchIds(text, from, size, relevance) : null;
+        if (itemIds == null) {
+            return fallback.search(text, from, size, relevance);
+        }
+        Map<Long, Item> items = repository.findAllById(itemIds).stream()
+                .collect(toMap(Item::getId, Function.identity()));
+        return itemIds.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .collect(toList());
+    }
+
+    private List<Long> searchIds(String text, Integer from, Integer size, boolean relevance) {
+        String query = text.toLowerCase(Locale.ROOT);
+        lock.readLock().lock();
+        try {
+            return index.search(query, from, size, relevance);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static class Index {
+        private static final Comparator<Document> BY_NAME = Comparator.<Document, String>comparing(d -> d.name)
+                .thenComparingLong(d -> d.id);
+
+        private final Map<String, Postings> namePostings = new HashMap<>();
+        private final Map<String, Postings> descriptionPostings = new HashMap<>();
+        private final Map<Long, Integer> ordinals = new HashMap<>();
+        private final BitSet removed = new BitSet();
+        private final Comparator<Integer> byName = this::compareNames;
+        private Document[] documents = new Document[16];
+        private int[] lengths = new int[16];
+        private int length;
+        private int built;
+        private int removedCount;
+        private long totalLength;
+
+        static Index of(List<Document> loaded) {
+            Index index = new Index();
+            loaded.sort(BY_NAME);
+            loaded.forEach(index::add);
+            index.built = index.length;
+            index.namePostings.values().forEach(Postings::trim);
+            index.descriptionPostings.values().forEach(Postings::trim);
+            return index;
+        }
+
+        List<Long> search(String query, Integer from, Integer size, boolean relevance) {
+            Match match = new Match(query);
+            int limit = size == null ? Integer.MAX_VALUE : from + size;
+            List<Integer> matches = relevance ? rank(match, limit) : byName(match, limit);
+            List<Long> ids = new ArrayList<>();
+            for (int i = from; i < Math.min(limit, matches.size()); i++) {
+                ids.add(documents[matches.get(i)].id);
+            }
+            return ids;
+        }
+
+        void put(Long itemId, Item item) {
+            if (item != null && Boolean.TRUE.equals(item.getAvailable())) {
+                add(new Document(item));
+            } else {
+                remove(itemId);
+            }
+        }
+
+        int count() {
+            return ordinals.size();
+        }
+
+        int gramCount() {
+            return namePostings.size() + descriptionPostings.size();
+        }
+
+        boolean needsRebuild() {
+            return length - built + removedCount > Math.max(MIN_REBUILD_CHANGES, built / 10);
+        }
+
+        private void add(Document document) {
+            remove(document.id);
+            if (length == documents.length) {
+                documents = Arrays.copyOf(documents, length * 2);
+                lengths = Arrays.copyOf(lengths, length * 2);
+            }
+            int ordinal = length++;
+            documents[ordinal] = document;
+            lengths[ordinal] = document.length;
+            ordinals.put(document.id, ordinal);
+            totalLength += document.length;
+            index(namePostings, ordinal, document.lowerName);
+            index(descriptionPostings, ordinal, document.lowerDescription);
+        }
+
+        private void remove(Long itemId) {
+            Integer ordinal = ordinals.remove(itemId);
+            if (ordinal == null) {
+                return;
+            }
+            totalLength -= lengths[ordinal];
+            documents[ordinal] = null;
+            removed.set(ordinal);
+            removedCount++;
+        }
+
+        private static void index(Map<String, Postings> postings, int ordinal, String text) {
+            for (int length = 1; length <= MAX_GRAM; length++) {
+                for (int i = 0; i + length <= text.length(); i++) {
+                    postings.computeIfAbsent(text.substring(i, i + length), gram -> new Postings()).add(ordinal);
+                }
+            }
+        }
+
+        private int compareNames(int first, int second) {
+            if (first < built && second < built) {
+                return Integer.compare(first, second);
+            }
+            return BY_NAME.compare(documents[first], documents[second]);
+        }
+
+        private List<Integer> byName(Match match, int limit) {
+            List<Integer> matches = new ArrayList<>();
+            for (int ordinal = match.next(0); ordinal < built && matches.size() < limit;
+                 ordinal = match.next(ordinal + 1)) {
+                if (match.verified(ordinal)) {
+                    matches.add(ordinal);
+                }
+            }
+            int sorted = matches.size();
+            for (int ordinal = match.next(built); ordinal < length; ordinal = match.next(ordinal + 1)) {
+                if (match.verified(ordinal)) {
+                    matches.add(ordinal);
+                }
+            }
+            if (matches.size() > sorted) {
+                matches.sort(byName);
+            }
+            return matches;
+        }
+
+        private List<Integer> rank(Match match, int limit) {
+            List<String> tokens = new ArrayList<>(new HashSet<>(tokenize(match.query)));
+            Cursor[] inName = new Cursor[tokens.size()];
+            Cursor[] inDescription = new Cursor[tokens.size()];
+            double[] idf = new double[tokens.size()];
+            for (int i = 0; i < tokens.size(); i++) {
+                inName[i] = new Cursor(namePostings, grams(tokens.get(i)));
+                inDescription[i] = new Cursor(descriptionPostings, grams(tokens.get(i)));
+                int frequency = Math.min(count(), inName[i].size() + inDescription[i].size());
+                idf[i] = Math.log(1 + (count() - frequency + 0.5) / (frequency + 0.5));
+            }
+            double averageLength = count() == 0 ? 1 : Math.max(1, (double) totalLength / count());
+            Comparator<Scored> order = Comparator.<Scored>comparingDouble(scored -> scored.score).reversed()
+                    .thenComparing(scored -> scored.ordinal, byName);
+            PriorityQueue<Scored> top = new PriorityQueue<>(order.reversed());
+            for (int ordinal = match.next(0); ordinal < length; ordinal = match.next(ordinal + 1)) {
+                double norm = K1 * (1 - B + B * lengths[ordinal] / averageLength);
+                double score = 0;
+                for (int i = 0; i < tokens.size(); i++) {
+                    int frequency = (inName[i].contains(ordinal) ? NAME_WEIGHT : 0)
+                            + (inDescription[i].contains(ordinal) ? 1 : 0);
+                    score += idf[i] * frequency * (K1 + 1) / (frequency + norm);
+                }
+                if ((top.size() < limit || score > top.peek().score
+                        || score == top.peek().score && compareNames(ordinal, top.peek().ordinal) < 0)
+                        && match.verified(ordinal)) {
+                    top.add(new Scored(ordinal, score));
+                    if (top.size() > limit) {
+                        top.poll();
+                    }
+                }
+            }
+            List<Scored> ranked = new ArrayList<>(top);
+            ranked.sort(order);
+            return ranked.stream().map(scored -> scored.ordinal).collect(toList());
+        }
+
+        private class Match {
+            private final String query;
+            private final Cursor name;
+            private final Cursor description;
+            private final boolean exact;
+
+            Match(String query) {
+                this.query = query;
+                this.name = new Cursor(namePostings, grams(query));
+                this.description = new Cursor(descriptionPostings, grams(query));
+                this.exact = query.length() <= MAX_GRAM;
+            }
+
+            int next(int from) {
+                for (int ordinal = from; ; ordinal++) {
+                    ordinal = Math.min(name.next(ordinal), description.next(ordinal));
+                    if (ordinal == Integer.MAX_VALUE || !removed.get(ordinal)) {
+                        return ordinal;
+                    }
+                }
+            }
+
+            boolean verified(int ordinal) {
+                return exact || documents[ordinal].matches(query);
+            }
+        }
+    }
+
+    private static class Cursor {
+        private final Postings[] lists;
+        private final int[] positions;
+
+        Cursor(Map<String, Postings> postings, Set<String> grams) {
+            List<Postings> found = new ArrayList<>();
+            for (String gram : grams) {
+                Postings list = postings.get(gram);
+                if (list == null) {
+                    found.clear();
+                    break;
+                }
+                found.add(list);
+            }
+            found.sort(Comparator.comparingInt(list -> list.size));
+            this.lists = found.toArray(Postings[]::new);
+            this.positions = new int[lists.length];
+        }
+
+        int size() {
+            return lists.length == 0 ? 0 : lists[0].size;
+        }
+
+        int next(int target) {
+            if (lists.length == 0) {
+                return Integer.MAX_VALUE;
+            }
+            int candidate = target;
+            int agreed = 0;
+            for (int i = 0; ; i = (i + 1) % lists.length) {
+                positions[i] = lists[i].search(positions[i], candidate);
+                if (positions[i] == lists[i].size) {
+                    return Integer.MAX_VALUE;
+                }
+                int value = lists[i].values[positions[i]];
+                if (value != candidate) {
+                    candidate = value;
+                    agreed = 0;
+                }
+                if (++agreed == lists.length) {
+                    return candidate;
+                }
+            }
+        }
+
+        boolean contains(int ordinal) {
+            for (int i = 0; i < lists.length; i++) {
+                positions[i] = lists[i].search(positions[i], ordinal);
+                if (positions[i] == lists[i].size || lists[i].values[positions[i]] != ordinal) {
+                    return false;
+                }
+            }
+            return lists.length > 0;
+        }
+    }
+
+    private static class Postings {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int ordinal) {
+            if (size > 0 && values[size - 1] == ordinal) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = ordinal;
+        }
+
+        void trim() {
+            values = Arrays.copyOf(values, size);
+        }
+
+        int search(int start, int ordinal) {
+            int low = start;
+            int high = start;
+            int step = 1;
+            while (high < size && values[high] < ordinal) {
+                low = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            high = Math.min(high, size);
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (values[middle] < ordinal) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+
+    private static class Scored {
+        private final int ordinal;
+        private final double score;
+
+        Scored(int ordinal, double score) {
+            this.ordinal = ordinal;
+            this.score = score;
+        }
+    }
+
+    private static Set<String> grams(String text) {
+        if (text.length() <= MAX_GRAM) {
+            return Set.of(text);
+        }
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + MAX_GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + MAX_GRAM));
+        }
+        return grams;
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(text)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static class Document {
+        private final long id;
+        private final String name;
+        private final String lowerName;
+        private final String lowerDescription;
+        private final int length;
+
+        Document(Item item) {
+            this.id = item.getId();
+            this.name = item.getName();
+            this.lowerName = name.toLowerCase(Locale.ROOT);
+            this.lowerDescription = item.getDescription().toLowerCase(Locale.ROOT);
+            this.length = NAME_WEIGHT * tokenize(lowerName).size() + tokenize(lowerDescription).size();
+        }
+
+        boolean matches(String query) {
+            return lowerName.contains(query) || lowerDescription.contains(query);
+        }
+    }
+}
@@ -1,9 +1,17 @@
 package ru.practicum.shareit.item;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemComments;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface ItemService {
     ItemDto getItemById(Long id, Long userId);
@@ -12,17 +20,33 @@ public interface ItemService {
 
     ItemDto create(ItemDto itemDto, Long ownerId);
 
+    ItemImportResultDto importItems(Long ownerId, ItemImportFormat format, InputStream body);
+
     List<ItemDto> getItemsByOwner(Long ownerId, Integer from, Integer size);
 
+    void streamItemsByOwner(Long ownerId, Integer from, Integer size, Consumer<ItemDto> action);
+
     void delete(Long itemId, Long ownerId);
 
-    List<ItemDto> getItemsBySearchQuery(String text, Integer from, Integer size);
+    ItemAvailabilityDto getItemAvailability(Long itemId, Long userId, LocalDateTime from, LocalDateTime to);
+
+    boolean isItemOwner(Long itemId, Long userId);
+
+    List<ItemDto> getItemsBySearchQuery(String text, Integer from, Integer size, String sort);
+
+    List<String> suggestNames(String prefix, Integer limit);
+
+    void streamItemsBySearchQuery(String text, Integer from, Integer size, String sort, Consumer<ItemDto> action);
 
     ItemDto update(ItemDto itemDto, Long ownerId, Long itemId);
 
     CommentDto createComment(CommentDto commentDto, Long itemId, Long userId);
 
-    List<CommentDto> getCommentsByItemId(Long itemId);
+    List<CommentDto> getComments(Long itemId, Long userId, String cursor, Integer size);
+
+    Map<Long, ItemComments> getCommentsByItemIds(Collection<Long> itemIds);
 
     List<ItemDto> getItemsByRequestId(Long requestId);
+
+    Map<Long, List<ItemDto>> getItemsByRequestIds(Collection<Long> requestIds);
 }
\ No newline at end of file
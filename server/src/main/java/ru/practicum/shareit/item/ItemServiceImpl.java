@@ -1,30 +1,59 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingService;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.dto.BookingShortView;
+import ru.practicum.shareit.config.CacheConfig;
 import ru.practicum.shareit.exception.ItemNotFoundException;
 import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentView;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemComments;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.service.CheckConsistencyService;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserService;
-import ru.practicum.shareit.util.Pagination;
+import ru.practicum.shareit.util.KeysetCursor;
+import ru.practicum.shareit.util.OffsetLimitPageable;
+import ru.practicum.shareit.util.StreamBatches;
 
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.toList;
 
 @Service
@@ -34,32 +63,61 @@ public class ItemServiceImpl implements ItemService {
     private final CheckConsistencyService checker;
     private final UserService userService;
     private final BookingService bookingService;
-    private final ItemService itemService;
+    private final EntityManager entityManager;
+    private final CommentLoader commentLoader;
+    private final LatestComments latestComments;
+    private final ItemSearch itemSearch;
+    private final ItemNameTrie nameTrie;
+    private final ItemImporter importer;
+    private final Cache searchCache;
+    private final Cache detailsCache;
+    private final AtomicLong catalogueVersion = new AtomicLong();
 
     @Autowired
     @Lazy
     public ItemServiceImpl(ItemRepository repository, CommentRepository commentRepository,
-                           CheckConsistencyService checkConsistencyService, UserService userService, BookingService bookingService, ItemService itemService) {
+                           CheckConsistencyService checkConsistencyService, UserService userService, BookingService bookingService,
+                           EntityManager entityManager, CommentLoader commentLoader, LatestComments latestComments,
+                           ItemSearch itemSearch, ItemNameTrie nameTrie, ItemImporter importer,
+                           CacheManager cacheManager) {
         this.repository = repository;
         this.commentRepository = commentRepository;
         this.checker = checkConsistencyService;
         this.userService = userService;
         this.bookingService = bookingService;
-        this.itemService = itemService;
+        this.entityManager = entityManager;
+        this.commentLoader = commentLoader;
+        this.latestComments = latestComments;
+        this.itemSearch = itemSearch;
+        this.nameTrie = nameTrie;
+        this.importer = importer;
+        this.searchCache = cacheManager.getCache(CacheConfig.ITEM_SEARCH);
+        this.detailsCache = cacheManager.getCache(CacheConfig.ITEM_DETAILS);
     }
 
     @Override
     public ItemDto getItemById(Long id, Long userId) {
+        try {
+            return detailsCache.get(id, () -> loadItemDetails(id)).toItemDto(userId);
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private ItemDetails loadItemDetails(Long id) {
         Item item = repository.findById(id)
                 .orElseThrow(() -> new ItemNotFoundException("Вещь с ID=" + id + " не найдена!"));
 
+        LocalDateTime validUntil = bookingService.getNextBookingBoundary(item.getId(), LocalDateTime.now());
         BookingShortDto lastBooking = bookingService.getLastBooking(item.getId());
         BookingShortDto nextBooking = bookingService.getNextBooking(item.getId());
-        List<CommentDto> comments = itemService.getCommentsByItemId(item.getId());
+        ItemComments comments = commentLoader.load(item.getId());
 
-        return userId.equals(item.getOwner().getId())
-                ? ItemMapper.toItemExtDto(item, lastBooking, nextBooking, comments)
-                : ItemMapper.toItemDto(item, comments);
+        return new ItemDetails(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                item.getOwner().getId(), item.getRequestId(), lastBooking, nextBooking, comments, validUntil);
     }
 
     @Override
@@ -74,55 +132,70 @@ public class ItemServiceImpl implements ItemService {
         if (userService.getUserById(ownerId) == null) {
             throw new UserNotFoundException("Пользователь с ID " + ownerId + " не найден!");
         }
-        List<CommentDto> comments = itemService.getCommentsByItemId(itemDto.getId());
-        return ItemMapper.toItemDto(repository.save(ItemMapper.toItem(itemDto, owner)), comments);
+        Item item = repository.save(ItemMapper.toItem(itemDto, owner));
+        itemChanged(item);
+        return ItemMapper.toItemDto(item, ItemComments.empty());
+    }
+
+    @Override
+    public ItemImportResultDto importItems(Long ownerId, ItemImportFormat format, InputStream body) {
+        User owner = userService.findUserById(ownerId);
+        try (Reader reader = new InputStreamReader(body, StandardCharsets.UTF_8)) {
+            return importer.importItems(owner, format, reader, this::itemChanged);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     @Override
     public List<ItemDto> getItemsByOwner(Long ownerId, Integer from, Integer size) {
         checker.isExistUser(ownerId);
         List<ItemDto> listItemExtDto = new ArrayList<>();
-        Pageable pageable;
         Sort sort = Sort.by(Sort.Direction.ASC, "id");
-        Page<Item> page;
-        Pagination pager = new Pagination(from, size);
-
-
-        if (size == null) {
-            pageable =
-                    PageRequest.of(pager.getIndex(), pager.getPageSize(), sort);
-            do {
-                page = repository.findByOwnerId(ownerId, pageable);
-                listItemExtDto.addAll(page.stream().map(item -> {
-                    BookingShortDto lastBooking = bookingService.getLastBooking(item.getId());
-                    BookingShortDto nextBooking = bookingService.getNextBooking(item.getId());
-                    List<CommentDto> comments = itemService.getCommentsByItemId(item.getId());
-                    return ItemMapper.toItemExtDto(item, lastBooking, nextBooking, comments);
-                }).collect(Collectors.toList()));
-                pageable = pageable.next();
-            } while (page.hasNext());
+        Pageable pageable = OffsetLimitPageable.of(from, size, sort);
+        Slice<Item> page;
 
-        } else {
-            for (int i = pager.getIndex(); i < pager.getTotalPages(); i++) {
-                pageable =
-                        PageRequest.of(i, pager.getPageSize(), sort);
-                page = repository.findByOwnerId(ownerId, pageable);
-                listItemExtDto.addAll(page.stream().map(item -> {
-                    BookingShortDto lastBooking = bookingService.getLastBooking(item.getId());
-                    BookingShortDto nextBooking = bookingService.getNextBooking(item.getId());
-                    List<CommentDto> comments = itemService.getCommentsByItemId(item.getId());
-                    return ItemMapper.toItemExtDto(item, lastBooking, nextBooking, comments);
-                }).collect(Collectors.toList()));
-                if (!page.hasNext()) {
-                    break;
-                }
+        do {
+            page = repository.findByOwnerId(ownerId, pageable);
+            listItemExtDto.addAll(toItemExtDtos(page.getContent()));
+            pageable = page.nextPageable();
+        } while (size == null && page.hasNext());
+        return listItemExtDto;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamItemsByOwner(Long ownerId, Integer from, Integer size, Consumer<ItemDto> action) {
+        checker.isExistUser(ownerId);
+        try (Stream<Item> items = repository.streamByOwnerId(ownerId, Sort.by(Sort.Direction.ASC, "id"))) {
+            StreamBatches.forEachBatch(items, from, size, batch -> {
+                toItemExtDtos(batch).forEach(action);
+                entityManager.clear();
+            });
+        }
+    }
+
+    private List<ItemDto> toItemExtDtos(List<Item> items) {
+        List<Long> itemIds = items.stream().map(Item::getId).collect(toList());
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, BookingShortDto> lastBookings = new HashMap<>();
+        Map<Long, BookingShortDto> nextBookings = new HashMap<>();
+        for (BookingShortView booking : bookingService.getLastAndNextBookings(itemIds, now)) {
+            if (booking.getEndTime().isBefore(now)) {
+                lastBookings.put(booking.getItemId(), BookingMapper.toBookingShortDto(booking));
+            } else {
+                nextBookings.put(booking.getItemId(), BookingMapper.toBookingShortDto(booking));
             }
-            listItemExtDto = listItemExtDto.stream().limit(size).collect(toList());
         }
-        return listItemExtDto;
+        Map<Long, ItemComments> comments = getCommentsByItemIds(itemIds);
+        return items.stream()
+                .map(item -> ItemMapper.toItemExtDto(item, lastBookings.get(item.getId()),
+                        nextBookings.get(item.getId()), comments.getOrDefault(item.getId(), ItemComments.empty())))
+                .collect(toList());
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.ITEM_OWNERS, allEntries = true)
     public void delete(Long itemId, Long ownerId) {
         Item item = repository.findById(itemId)
                 .orElseThrow(() -> new ItemNotFoundException("Вещь с ID=" + itemId + " не найдена!"));
@@ -130,47 +203,77 @@ public class ItemServiceImpl implements ItemService {
             throw new ItemNotFoundException("У пользователя нет такой вещи!");
         }
         repository.deleteById(itemId);
+        itemSearch.remove(itemId);
+        nameTrie.remove(itemId);
+        detailsCache.evict(itemId);
+        catalogueVersion.incrementAndGet();
+    }
+
+    @Override
+    public ItemAvailabilityDto getItemAvailability(Long itemId, Long userId, LocalDateTime from, LocalDateTime to) {
+        checker.isExistUser(userId);
+        findItemById(itemId);
+        return bookingService.getItemAvailability(itemId, from, to);
     }
 
     @Override
-    public List<ItemDto> getItemsBySearchQuery(String text, Integer from, Integer size) {
-        List<ItemDto> listItemDto = new ArrayList<>();
-        if ((text != null) && (!text.isEmpty()) && (!text.isBlank())) {
-            text = text.toLowerCase();
-            Pageable pageable;
-            Sort sort = Sort.by(Sort.Direction.ASC, "name");
-            Page<Item> page;
-            Pagination pager = new Pagination(from, size);
-
-            if (size == null) {
-                pageable =
-                        PageRequest.of(pager.getIndex(), pager.getPageSize(), sort);
-                do {
-                    page = repository.getItemsBySearchQuery(text, pageable);
-                    listItemDto.addAll(page.stream().map(item -> {
-                        List<CommentDto> comments = itemService.getCommentsByItemId(item.getId());
-                        return ItemMapper.toItemDto(item, comments);
-                    }).collect(Collectors.toList()));
-                    pageable = pageable.next();
-                } while (page.hasNext());
+    @Cacheable(cacheNames = CacheConfig.ITEM_OWNERS, key = "{#itemId, #userId}")
+    public boolean isItemOwner(Long itemId, Long userId) {
+        return repository.existsByIdAndOwnerId(itemId, userId);
+    }
 
-            } else {
-                for (int i = pager.getIndex(); i < pager.getTotalPages(); i++) {
-                    pageable =
-                            PageRequest.of(i, pager.getPageSize(), sort);
-                    page = repository.getItemsBySearchQuery(text, pageable);
-                    listItemDto.addAll(page.stream().map(item -> {
-                        List<CommentDto> comments = itemService.getCommentsByItemId(item.getId());
-                        return ItemMapper.toItemDto(item, comments);
-                    }).collect(Collectors.toList()));
-                    if (!page.hasNext()) {
-                        break;
-                    }
-                }
-                listItemDto = listItemDto.stream().limit(size).collect(toList());
-            }
+    @Override
+    public List<ItemDto> getItemsBySearchQuery(String text, Integer from, Integer size, String sort) {
+        boolean relevance = byRelevance(sort);
+        if ((text == null) || (text.isEmpty()) || (text.isBlank())) {
+            return new ArrayList<>();
+        }
+        OffsetLimitPageable.validate(from, size);
+        SimpleKey key = new SimpleKey(catalogueVersion.get(), text.toLowerCase(Locale.ROOT), from, size, relevance);
+        return searchCache.get(key, () -> toItemDtos(itemSearch.search(text, from, size, relevance)));
+    }
+
+    @Override
+    public List<String> suggestNames(String prefix, Integer limit) {
+        if (limit == null || limit <= 0) {
+            throw new ValidationException("Значение должно быть больше нуля!");
+        }
+        if ((prefix == null) || (prefix.isBlank())) {
+            return new ArrayList<>();
+        }
+        return nameTrie.suggest(prefix, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamItemsBySearchQuery(String text, Integer from, Integer size, String sort,
+                                         Consumer<ItemDto> action) {
+        boolean relevance = byRelevance(sort);
+        if ((text == null) || (text.isBlank())) {
+            return;
+        }
+        try (Stream<Item> items = relevance ? repository.streamItemsBySearchQueryByRelevance(text.toLowerCase())
+                : repository.streamItemsBySearchQuery(text.toLowerCase(), Sort.by(Sort.Direction.ASC, "name"))) {
+            StreamBatches.forEachBatch(items, from, size, batch -> {
+                Map<Long, ItemComments> comments = getCommentsByItemIds(batch.stream()
+                        .map(Item::getId)
+                        .collect(toList()));
+                batch.forEach(item -> action.accept(ItemMapper.toItemDto(item,
+                        comments.getOrDefault(item.getId(), ItemComments.empty()))));
+                entityManager.clear();
+            });
+        }
+    }
+
+    private static boolean byRelevance(String sort) {
+        switch (sort.toUpperCase()) {
+            case "NAME":
+                return false;
+            case "RELEVANCE":
+                return true;
+            default:
+                throw new ValidationException("Unknown sort: " + sort);
         }
-        return listItemDto;
     }
 
     @Override
@@ -178,7 +281,7 @@ public class ItemServiceImpl implements ItemService {
         checker.isExistUser(ownerId);
         Item item = repository.findById(itemId)
                 .orElseThrow(() -> new ItemNotFoundException("Вещь с ID=" + itemId + " не найдена!"));
-        List<CommentDto> comments = itemService.getCommentsByItemId(itemId);
+        ItemComments comments = commentLoader.load(itemId);
         if (!item.getOwner().getId().equals(ownerId)) {
             throw new ItemNotFoundException("У пользователя нет такой вещи!");
         }
@@ -191,7 +294,16 @@ public class ItemServiceImpl implements ItemService {
         if (itemDto.getAvailable() != null) {
             item.setAvailable(itemDto.getAvailable());
         }
-        return ItemMapper.toItemDto(repository.save(item), comments);
+        Item saved = repository.save(item);
+        itemChanged(saved);
+        return ItemMapper.toItemDto(saved, comments);
+    }
+
+    private void itemChanged(Item item) {
+        itemSearch.put(item);
+        nameTrie.put(item);
+        detailsCache.evict(item.getId());
+        catalogueVersion.incrementAndGet();
     }
 
     @Override
@@ -207,24 +319,56 @@ public class ItemServiceImpl implements ItemService {
         comment.setAuthor(booking.getBooker());
         comment.setText(commentDto.getText());
 
-        return ItemMapper.toCommentDto(commentRepository.save(comment));
+        CommentDto saved = ItemMapper.toCommentDto(commentRepository.save(comment));
+        detailsCache.evict(itemId);
+        catalogueVersion.incrementAndGet();
+        return saved;
     }
 
     @Override
-    public List<CommentDto> getCommentsByItemId(Long itemId) {
-        return commentRepository.findAllByItemId(itemId,
-                        Sort.by(Sort.Direction.DESC, "created")).stream()
+    public List<CommentDto> getComments(Long itemId, Long userId, String cursor, Integer size) {
+        checker.isExistUser(userId);
+        findItemById(itemId);
+        if (size == null || size <= 0) {
+            throw new ValidationException("Значение должно быть больше нуля!");
+        }
+        Pageable pageable = PageRequest.of(0, size);
+        List<CommentView> comments;
+        if (cursor == null) {
+            comments = commentRepository.findViewsByItemId(itemId, pageable);
+        } else {
+            KeysetCursor keyset = KeysetCursor.decode(cursor);
+            comments = commentRepository.findViewsByItemIdBeforeCursor(itemId, keyset.getMoment(), keyset.getId(),
+                    pageable);
+        }
+        return comments.stream()
                 .map(ItemMapper::toCommentDto)
                 .collect(toList());
     }
 
+    @Override
+    public Map<Long, ItemComments> getCommentsByItemIds(Collection<Long> itemIds) {
+        return latestComments.fetch(itemIds);
+    }
+
     @Override
     public List<ItemDto> getItemsByRequestId(Long requestId) {
-        return repository.findAllByRequestId(requestId,
-                        Sort.by(Sort.Direction.DESC, "id")).stream()
-                .map(item -> {
-                    List<CommentDto> comments = itemService.getCommentsByItemId(item.getId());
-                    return ItemMapper.toItemDto(item, comments);
-                }).collect(toList());
+        return toItemDtos(repository.findAllByRequestId(requestId, Sort.by(Sort.Direction.DESC, "id")));
+    }
+
+    @Override
+    public Map<Long, List<ItemDto>> getItemsByRequestIds(Collection<Long> requestIds) {
+        if (requestIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        return toItemDtos(repository.findAllByRequestIdIn(requestIds, Sort.by(Sort.Direction.DESC, "id"))).stream()
+                .collect(groupingBy(ItemDto::getRequestId));
+    }
+
+    private List<ItemDto> toItemDtos(List<Item> items) {
+        commentLoader.prime(items.stream().map(Item::getId).collect(toList()));
+        return items.stream()
+                .map(item -> ItemMapper.toItemDto(item, commentLoader.load(item.getId())))
+                .collect(toList());
     }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.CommentCountView;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentView;
+import ru.practicum.shareit.item.dto.ItemComments;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.mapping;
+import static java.util.stream.Collectors.toList;
+
+@Component
+public class LatestComments {
+    private final CommentRepository repository;
+    private final int limit;
+
+    @Autowired
+    public LatestComments(CommentRepository repository, @Value("${shareit.comments.embedded-limit}") int limit) {
+        this.repository = repository;
+        this.limit = limit;
+    }
+
+    public Map<Long, ItemComments> fetch(Collection<Long> itemIds) {
+        Map<Long, ItemComments> result = new HashMap<>();
+        if (itemIds.isEmpty()) {
+            return result;
+        }
+        Map<Long, List<CommentDto>> latest = limit <= 0 ? Map.of()
+                : repository.findLatestViewsByItemIdIn(itemIds, limit).stream()
+                .collect(groupingBy(CommentView::getItemId, mapping(ItemMapper::toCommentDto, toList())));
+        for (CommentCountView count : repository.countByItemIdIn(itemIds)) {
+            result.put(count.getItemId(), new ItemComments(count.getCount(),
+                    latest.getOrDefault(count.getItemId(), new ArrayList<>())));
+        }
+        return result;
+    }
+}
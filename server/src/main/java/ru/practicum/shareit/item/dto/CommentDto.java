@@ -3,7 +3,6 @@ package ru.practicum.shareit.item.dto;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
-import ru.practicum.shareit.item.Item;
 
 import java.time.LocalDateTime;
 
@@ -13,7 +12,7 @@ public class CommentDto {
     private Long id;
     private String text;
     @JsonIgnore
-    private Item item;
+    private Long itemId;
     private String authorName;
     private LocalDateTime created;
 }
\ No newline at end of file
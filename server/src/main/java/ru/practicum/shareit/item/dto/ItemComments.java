@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ItemComments {
+    private long count;
+    private List<CommentDto> latest;
+
+    public static ItemComments empty() {
+        return new ItemComments(0, new ArrayList<>());
+    }
+}
@@ -4,7 +4,6 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
-import ru.practicum.shareit.user.User;
 
 import java.util.List;
 
@@ -16,9 +15,10 @@ public class ItemDto {
     private String description;
     private Boolean available;
     @JsonIgnore
-    private User owner;
+    private Long ownerId;
     private Long requestId;
     private BookingShortDto lastBooking;
     private BookingShortDto nextBooking;
+    private Long commentCount;
     private List<CommentDto> comments;
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ItemImportErrorDto {
+    private long line;
+    private String message;
+}
@@ -15,10 +15,11 @@ import java.time.LocalDateTime;
 @Table(name = "item_request ")
 public class ItemRequest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_request_seq")
+    @SequenceGenerator(name = "item_request_seq", sequenceName = "item_request_seq", allocationSize = 50)
     private Long id;
     private String description;
-    @ManyToOne()
+    @ManyToOne(optional = false)
     @JoinColumn(name = "requestor_id", referencedColumnName = "id")
     private User requestor;
     private LocalDateTime created;
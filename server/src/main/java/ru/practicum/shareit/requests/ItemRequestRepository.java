@@ -1,16 +1,17 @@
 package ru.practicum.shareit.requests;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
     List<ItemRequest> findAllByRequestorId(Long requestorId, Sort sort);
 
-    Page<ItemRequest> findAllByRequestorIdNot(Long userId, Pageable pageable);
-
-    List<ItemRequest> findAllByRequestorIdNotOrderByCreatedDesc(Long userId);
+    @Query("select r from ItemRequest r where r.requestor.id <> :userId")
+    Slice<ItemRequest> findAllByRequestorIdNot(@Param("userId") Long userId, Pageable pageable);
 }
\ No newline at end of file
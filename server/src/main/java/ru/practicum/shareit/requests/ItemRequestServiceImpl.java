@@ -1,23 +1,23 @@
 package ru.practicum.shareit.requests;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exception.ItemRequestNotFoundException;
 import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.requests.dto.ItemRequestDto;
 import ru.practicum.shareit.service.CheckConsistencyService;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserService;
-import ru.practicum.shareit.util.Pagination;
+import ru.practicum.shareit.util.OffsetLimitPageable;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 import static java.util.stream.Collectors.toList;
 
@@ -55,37 +55,33 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Override
     public List<ItemRequestDto> getOwnItemRequests(Long requestorId) {
         checker.isExistUser(requestorId);
-        return repository.findAllByRequestorId(requestorId,
-                        Sort.by(Sort.Direction.DESC, "created")).stream()
-                .map((ItemRequest itemRequest) -> ItemRequestMapper.toItemRequestDto(itemRequest, itemService.getItemsByRequestId(itemRequest.getId())))
-                .collect(toList());
+        return toItemRequestDtos(repository.findAllByRequestorId(requestorId,
+                Sort.by(Sort.Direction.DESC, "created")));
     }
 
     @Override
     public List<ItemRequestDto> getAllItemRequests(Long userId, Integer from, Integer size) {
         checker.isExistUser(userId);
         List<ItemRequestDto> listItemRequestDto = new ArrayList<>();
-        Pageable pageable;
-        Page<ItemRequest> page;
-        Pagination pager = new Pagination(from, size);
         Sort sort = Sort.by(Sort.Direction.DESC, "created");
+        Pageable pageable = OffsetLimitPageable.of(from, size, sort);
+        Slice<ItemRequest> page;
 
-        if (size == null) {
-            List<ItemRequest> listItemRequest = repository.findAllByRequestorIdNotOrderByCreatedDesc(userId);
-            listItemRequestDto
-                    .addAll(listItemRequest.stream().skip(from).map((ItemRequest itemRequest) -> ItemRequestMapper.toItemRequestDto(itemRequest, itemService.getItemsByRequestId(itemRequest.getId()))).collect(Collectors.toList()));
-        } else {
-            for (int i = pager.getIndex(); i < pager.getTotalPages(); i++) {
-                pageable =
-                        PageRequest.of(i, pager.getPageSize(), sort);
-                page = repository.findAllByRequestorIdNot(userId, pageable);
-                listItemRequestDto.addAll(page.stream().map((ItemRequest itemRequest) -> ItemRequestMapper.toItemRequestDto(itemRequest, itemService.getItemsByRequestId(itemRequest.getId()))).collect(Collectors.toList()));
-                if (!page.hasNext()) {
-                    break;
-                }
-            }
-            listItemRequestDto = listItemRequestDto.stream().limit(size).collect(toList());
-        }
+        do {
+            page = repository.findAllByRequestorIdNot(userId, pageable);
+            listItemRequestDto.addAll(toItemRequestDtos(page.getContent()));
+            pageable = page.nextPageable();
+        } while (size == null && page.hasNext());
         return listItemRequestDto;
     }
+
+    private List<ItemRequestDto> toItemRequestDtos(List<ItemRequest> itemRequests) {
+        Map<Long, List<ItemDto>> items = itemService.getItemsByRequestIds(itemRequests.stream()
+                .map(ItemRequest::getId)
+                .collect(toList()));
+        return itemRequests.stream()
+                .map(itemRequest -> ItemRequestMapper.toItemRequestDto(itemRequest,
+                        items.getOrDefault(itemRequest.getId(), new ArrayList<>())))
+                .collect(toList());
+    }
 }
\ No newline at end of file
@@ -29,8 +29,6 @@ public class CheckConsistencyService {
     }
 
     public boolean isItemOwner(Long itemId, Long userId) {
-
-        return itemService.getItemsByOwner(userId, 0, null).stream()
-                .anyMatch(i -> i.getId().equals(itemId));
+        return itemService.isItemOwner(itemId, userId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+@Getter
+@AllArgsConstructor
+public class KeysetCursor {
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime moment;
+    private final Long id;
+
+    public String encode() {
+        String raw = moment + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new ValidationException("Некорректный курсор: " + cursor);
+            }
+            return new KeysetCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.valueOf(raw.substring(separator + 1)));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new ValidationException("Некорректный курсор: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+public final class NdjsonResponses {
+    private static final int LINE_SEPARATOR = '\n';
+
+    private NdjsonResponses() {
+    }
+
+    public static <T> ResponseEntity<StreamingResponseBody> of(ObjectMapper mapper, Consumer<Consumer<T>> source) {
+        ObjectWriter writer = mapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        StreamingResponseBody body = out -> {
+            try {
+                source.accept(value -> {
+                    try {
+                        writer.writeValue(out, value);
+                        out.write(LINE_SEPARATOR);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.util;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.exception.ValidationException;
+
+@ToString
+@EqualsAndHashCode
+public class OffsetLimitPageable implements Pageable {
+    public static final int DEFAULT_LIMIT = 1000;
+
+    private final long offset;
+    private final int limit;
+    private final Sort sort;
+
+    public OffsetLimitPageable(long offset, int limit, Sort sort) {
+        this.offset = offset;
+        this.limit = limit;
+        this.sort = sort;
+    }
+
+    public static OffsetLimitPageable of(Integer from, Integer size, Sort sort) {
+        validate(from, size);
+        return new OffsetLimitPageable(from, size != null ? size : DEFAULT_LIMIT, sort);
+    }
+
+    public static void validate(Integer from, Integer size) {
+        if ((from < 0) || (size != null && size < 0)) {
+            throw new ValidationException("Значение не может быть меньше нуля!");
+        }
+        if (size != null && size.equals(0)) {
+            throw new ValidationException("Значение должно быть больше нуля!");
+        }
+    }
+
+    @Override
+    public int getPageNumber() {
+        return (int) (offset / limit);
+    }
+
+    @Override
+    public int getPageSize() {
+        return limit;
+    }
+
+    @Override
+    public long getOffset() {
+        return offset;
+    }
+
+    @Override
+    public Sort getSort() {
+        return sort;
+    }
+
+    @Override
+    public Pageable next() {
+        return new OffsetLimitPageable(offset + limit, limit, sort);
+    }
+
+    @Override
+    public Pageable previousOrFirst() {
+        return hasPrevious() ? new OffsetLimitPageable(Math.max(offset - limit, 0), limit, sort) : first();
+    }
+
+    @Override
+    public Pageable first() {
+        return new OffsetLimitPageable(0, limit, sort);
+    }
+
+    @Override
+    public Pageable withPage(int pageNumber) {
+        return new OffsetLimitPageable((long) pageNumber * limit, limit, sort);
+    }
+
+    @Override
+    public boolean hasPrevious() {
+        return offset > 0;
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public final class StreamBatches {
+    public static final String FETCH_SIZE = "500";
+    public static final int BATCH_SIZE = 500;
+
+    private StreamBatches() {
+    }
+
+    public static <T> void forEachBatch(Stream<T> stream, Integer from, Integer size, Consumer<List<T>> action) {
+        OffsetLimitPageable.validate(from, size);
+        Stream<T> window = stream.skip(from);
+        if (size != null) {
+            window = window.limit(size);
+        }
+        Iterator<T> iterator = window.iterator();
+        List<T> batch = new ArrayList<>(BATCH_SIZE);
+        while (iterator.hasNext()) {
+            batch.add(iterator.next());
+            if (batch.size() == BATCH_SIZE) {
+                action.accept(batch);
+                batch = new ArrayList<>(BATCH_SIZE);
+            }
+        }
+        if (!batch.isEmpty()) {
+            action.accept(batch);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+DO '
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_class WHERE relname = ''bookings'' AND relkind = ''r'') THEN
+        DROP INDEX IF EXISTS ix_bookings_booker_start;
+        DROP INDEX IF EXISTS ix_bookings_item_start;
+        DROP INDEX IF EXISTS ix_bookings_item_end;
+        DROP INDEX IF EXISTS ix_bookings_item_booker_end;
+        ALTER TABLE bookings DROP CONSTRAINT IF EXISTS ex_booking_item_period;
+        ALTER TABLE bookings RENAME TO bookings_default;
+        ALTER TABLE bookings_default RENAME CONSTRAINT pk_booking TO pk_booking_default;
+        ALTER TABLE bookings_default ALTER COLUMN id DROP IDENTITY;
+        ALTER TABLE bookings_default ALTER COLUMN end_date SET NOT NULL;
+        CREATE TABLE bookings (
+            id BIGINT NOT NULL,
+            start_date TIMESTAMP WITHOUT TIME ZONE,
+            end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+            item_id BIGINT NOT NULL,
+            booker_id BIGINT NOT NULL,
+            status VARCHAR (25) NOT NULL,
+            CONSTRAINT PK_BOOKING PRIMARY KEY (id, end_date),
+            CONSTRAINT FK_BOOKING_FOR_BOOKER FOREIGN KEY (booker_id) REFERENCES users (id),
+            CONSTRAINT FK_BOOKING_FOR_ITEM FOREIGN KEY (item_id) REFERENCES items (id)
+        ) PARTITION BY RANGE (end_date);
+        ALTER TABLE bookings ATTACH PARTITION bookings_default DEFAULT;
+        BEGIN
+            ALTER TABLE bookings_default ADD CONSTRAINT ex_bookings_default_item_period
+                EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+                WHERE (status IN (''WAITING'', ''APPROVED''));
+        EXCEPTION
+            WHEN exclusion_violation THEN
+                RAISE WARNING ''ex_bookings_default_item_period is not created: bookings table has overlapping periods'';
+        END;
+    END IF;
+END';
+
+CREATE INDEX IF NOT EXISTS IX_BOOKINGS_BOOKER_START ON bookings (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS IX_BOOKINGS_ITEM_START ON bookings (item_id, start_date);
+CREATE INDEX IF NOT EXISTS IX_BOOKINGS_ITEM_END ON bookings (item_id, end_date);
+CREATE INDEX IF NOT EXISTS IX_BOOKINGS_ITEM_BOOKER_END ON bookings (item_id, booker_id, end_date);
+
+CREATE OR REPLACE FUNCTION shareit_archive_bookings(cutoff TIMESTAMP, months_ahead INT) RETURNS BIGINT AS '
+DECLARE
+    lower_bound TIMESTAMP;
+    partition_name TEXT;
+    part RECORD;
+    moved BIGINT;
+    archived BIGINT := 0;
+BEGIN
+    FOR i IN 0..months_ahead LOOP
+        lower_bound := date_trunc(''month'', localtimestamp) + make_interval(months => i);
+        partition_name := ''bookings_p'' || to_char(lower_bound, ''YYYYMM'');
+        IF to_regclass(partition_name) IS NULL THEN
+            EXECUTE format(''CREATE TABLE %I (LIKE bookings INCLUDING DEFAULTS)'', partition_name);
+            LOCK TABLE bookings_default IN ACCESS EXCLUSIVE MODE;
+            EXECUTE format(''WITH moved AS (DELETE FROM bookings_default WHERE end_date >= %L AND end_date < %L '' ||
+                    ''RETURNING id, start_date, end_date, item_id, booker_id, status) '' ||
+                    ''INSERT INTO %I (id, start_date, end_date, item_id, booker_id, status) SELECT * FROM moved'',
+                    lower_bound, lower_bound + interval ''1 month'', partition_name);
+            EXECUTE format(''ALTER TABLE bookings ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)'',
+                    partition_name, lower_bound, lower_bound + interval ''1 month'');
+            BEGIN
+                EXECUTE format(''ALTER TABLE %I ADD CONSTRAINT %I EXCLUDE USING gist '' ||
+                        ''(item_id WITH =, tsrange(start_date, end_date) WITH &&) '' ||
+                        ''WHERE (status IN (''''WAITING'''', ''''APPROVED''''))'',
+                        partition_name, ''ex_'' || partition_name || ''_item_period'');
+            EXCEPTION
+                WHEN exclusion_violation THEN
+                    RAISE WARNING ''% has overlapping periods, exclusion constraint is not created'', partition_name;
+            END;
+        END IF;
+    END LOOP;
+
+    FOR part IN SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = ''bookings''::regclass AND c.relname ~ ''^bookings_p[0-9]{6}$'' LOOP
+        IF to_date(substr(part.relname, 11), ''YYYYMM'') + interval ''1 month'' <= cutoff THEN
+            EXECUTE format(''ALTER TABLE bookings DETACH PARTITION %I'', part.relname);
+            EXECUTE format(''INSERT INTO bookings_archive (id, start_date, end_date, item_id, booker_id, status) '' ||
+                    ''SELECT id, start_date, end_date, item_id, booker_id, status FROM %I'', part.relname);
+            GET DIAGNOSTICS moved = ROW_COUNT;
+            archived := archived + moved;
+            EXECUTE format(''DROP TABLE %I'', part.relname);
+        END IF;
+    END LOOP;
+
+    WITH moved_rows AS (
+        DELETE FROM bookings_default WHERE end_date < cutoff
+        RETURNING id, start_date, end_date, item_id, booker_id, status
+    )
+    INSERT INTO bookings_archive (id, start_date, end_date, item_id, booker_id, status)
+    SELECT * FROM moved_rows;
+    GET DIAGNOSTICS moved = ROW_COUNT;
+    RETURN archived + moved;
+END' LANGUAGE plpgsql;
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS IX_ITEMS_NAME_TRGM ON items USING gin (lower(name) gin_trgm_ops) WHERE available;
+CREATE INDEX IF NOT EXISTS IX_ITEMS_DESCRIPTION_TRGM ON items USING gin (lower(description) gin_trgm_ops)
+    WHERE available;
+
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE users ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE items ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE bookings ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE bookings ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE item_request ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE item_request ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE comments ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE booking_outbox ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE booking_outbox ALTER COLUMN id DROP DEFAULT;
+
+SELECT setval('users_seq', m) FROM (SELECT max(id) AS m FROM users) t
+WHERE m > (SELECT last_value FROM users_seq);
+SELECT setval('items_seq', m) FROM (SELECT max(id) AS m FROM items) t
+WHERE m > (SELECT last_value FROM items_seq);
+SELECT setval('bookings_seq', m) FROM (SELECT greatest((SELECT max(id) FROM bookings),
+                                                (SELECT max(id) FROM bookings_archive)) AS m) t
+WHERE m > (SELECT last_value FROM bookings_seq);
+SELECT setval('item_request_seq', m) FROM (SELECT max(id) AS m FROM item_request) t
+WHERE m > (SELECT last_value FROM item_request_seq);
+SELECT setval('comments_seq', m) FROM (SELECT max(id) AS m FROM comments) t
+WHERE m > (SELECT last_value FROM comments_seq);
+SELECT setval('booking_outbox_seq', m) FROM (SELECT max(id) AS m FROM booking_outbox) t
+WHERE m > (SELECT last_value FROM booking_outbox_seq);
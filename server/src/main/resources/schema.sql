@@ -1,5 +1,12 @@
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS item_request_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS booking_outbox_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS users (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id BIGINT NOT NULL,
     name VARCHAR(255) NOT NULL,
     email VARCHAR(512) NOT NULL,
     CONSTRAINT PK_USER PRIMARY KEY (id),
@@ -7,7 +14,7 @@ CREATE TABLE IF NOT EXISTS users (
 );
 
 CREATE TABLE IF NOT EXISTS items (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id BIGINT NOT NULL,
     name VARCHAR (255) NOT NULL,
     description VARCHAR(512) NOT NULL,
     available BOOLEAN NOT NULL,
@@ -18,7 +25,7 @@ CREATE TABLE IF NOT EXISTS items (
 );
 
 CREATE TABLE IF NOT EXISTS bookings (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id BIGINT NOT NULL,
     start_date TIMESTAMP WITHOUT TIME ZONE,
     end_date TIMESTAMP WITHOUT TIME ZONE,
     item_id BIGINT NOT NULL,
@@ -30,7 +37,7 @@ CREATE TABLE IF NOT EXISTS bookings (
 );
 
 CREATE TABLE IF NOT EXISTS item_request (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id BIGINT NOT NULL,
     description VARCHAR(512) NOT NULL,
     requestor_id BIGINT NOT NULL,
     created TIMESTAMP NOT NULL,
@@ -39,7 +46,7 @@ CREATE TABLE IF NOT EXISTS item_request (
 );
 
 CREATE TABLE IF NOT EXISTS comments (
-    id        BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id        BIGINT NOT NULL,
     text_comment VARCHAR(1024)                        NOT NULL,
     item_id   BIGINT                                  NOT NULL,
     author_id BIGINT                                  NOT NULL,
@@ -47,4 +54,45 @@ CREATE TABLE IF NOT EXISTS comments (
     CONSTRAINT PK_COMMENTS PRIMARY KEY (id),
     CONSTRAINT FK_COMMENT_FOR_ITEM FOREIGN KEY (item_id) REFERENCES items (id),
     CONSTRAINT FK_COMMENT_FOR_USER FOREIGN KEY (author_id) REFERENCES users (id)
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS IX_BOOKINGS_BOOKER_START ON bookings (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS IX_BOOKINGS_ITEM_START ON bookings (item_id, start_date);
+CREATE INDEX IF NOT EXISTS IX_BOOKINGS_ITEM_END ON bookings (item_id, end_date);
+CREATE INDEX IF NOT EXISTS IX_BOOKINGS_ITEM_BOOKER_END ON bookings (item_id, booker_id, end_date);
+CREATE INDEX IF NOT EXISTS IX_ITEMS_OWNER ON items (owner_id, id);
+CREATE INDEX IF NOT EXISTS IX_ITEMS_REQUEST ON items (request_id);
+CREATE INDEX IF NOT EXISTS IX_ITEM_REQUEST_REQUESTOR_CREATED ON item_request (requestor_id, created DESC);
+CREATE INDEX IF NOT EXISTS IX_ITEM_REQUEST_CREATED ON item_request (created DESC);
+CREATE INDEX IF NOT EXISTS IX_COMMENTS_ITEM_CREATED_ID ON comments (item_id, created DESC, id DESC);
+
+CREATE TABLE IF NOT EXISTS booking_outbox (
+    id BIGINT NOT NULL,
+    booking_id BIGINT NOT NULL,
+    item_id BIGINT NOT NULL,
+    owner_id BIGINT NOT NULL,
+    booker_id BIGINT NOT NULL,
+    event_type VARCHAR (25) NOT NULL,
+    created TIMESTAMP NOT NULL,
+    attempts INTEGER DEFAULT 0 NOT NULL,
+    next_attempt_at TIMESTAMP NOT NULL,
+    CONSTRAINT PK_BOOKING_OUTBOX PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS IX_BOOKING_OUTBOX_NEXT_ATTEMPT ON booking_outbox (next_attempt_at, id);
+
+CREATE TABLE IF NOT EXISTS bookings_archive (
+    id BIGINT NOT NULL,
+    start_date TIMESTAMP WITHOUT TIME ZONE,
+    end_date TIMESTAMP WITHOUT TIME ZONE,
+    item_id BIGINT NOT NULL,
+    booker_id BIGINT NOT NULL,
+    status VARCHAR (25) NOT NULL,
+    CONSTRAINT PK_BOOKING_ARCHIVE PRIMARY KEY (id),
+    CONSTRAINT FK_BOOKING_ARCHIVE_FOR_BOOKER FOREIGN KEY (booker_id) REFERENCES users (id),
+    CONSTRAINT FK_BOOKING_ARCHIVE_FOR_ITEM FOREIGN KEY (item_id) REFERENCES items (id)
+);
+
+CREATE INDEX IF NOT EXISTS IX_BOOKINGS_ARCHIVE_BOOKER_START ON bookings_archive (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS IX_BOOKINGS_ARCHIVE_ITEM_START ON bookings_archive (item_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS IX_BOOKINGS_ARCHIVE_ITEM_BOOKER_END ON bookings_archive (item_id, booker_id, end_date);
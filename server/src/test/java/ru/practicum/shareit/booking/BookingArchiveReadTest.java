@@ -0,0 +1,93 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.dto.BookingShortView;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class BookingArchiveReadTest {
+    private static final long OWNER = 800_000L;
+    private static final long BOOKER = 800_001L;
+    private static final long ARCHIVED_ITEM = 800_000L;
+    private static final long LIVE_ITEM = 800_001L;
+    private static final LocalDateTime NOW = LocalDateTime.now();
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void seed() {
+        jdbc.update("delete from bookings_archive where item_id between ? and ?", ARCHIVED_ITEM, LIVE_ITEM);
+        jdbc.update("delete from bookings where item_id between ? and ?", ARCHIVED_ITEM, LIVE_ITEM);
+        jdbc.update("delete from items where id between ? and ?", ARCHIVED_ITEM, LIVE_ITEM);
+        jdbc.update("delete from users where id between ? and ?", OWNER, BOOKER);
+        jdbc.update("insert into users (id, name, email) values (?, 'owner', 'archive-owner@mail.ru')", OWNER);
+        jdbc.update("insert into users (id, name, email) values (?, 'booker', 'archive-booker@mail.ru')", BOOKER);
+        for (long item : List.of(ARCHIVED_ITEM, LIVE_ITEM)) {
+            jdbc.update("insert into items (id, name, description, available, owner_id) " +
+                    "values (?, 'Дрель', 'Простая дрель', true, ?)", item, OWNER);
+        }
+        archived(800_000L, ARCHIVED_ITEM, NOW.minusYears(2), "APPROVED");
+        archived(800_001L, ARCHIVED_ITEM, NOW.minusYears(1), "APPROVED");
+        archived(800_002L, LIVE_ITEM, NOW.minusYears(1), "APPROVED");
+        archived(800_004L, ARCHIVED_ITEM, NOW.minusYears(3), "REJECTED");
+        archived(800_005L, LIVE_ITEM, NOW.minusYears(3), "WAITING");
+        jdbc.update("insert into bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                "values (?, ?, ?, ?, ?, 'APPROVED')", 800_003L, NOW.minusDays(3), NOW.minusDays(2), LIVE_ITEM, BOOKER);
+    }
+
+    @Test
+    void lastBookingFallsBackToArchive() {
+        BookingShortDto last = bookingService.getLastBooking(ARCHIVED_ITEM);
+
+        assertEquals(800_001L, last.getId());
+        assertEquals(800_003L, bookingService.getLastBooking(LIVE_ITEM).getId());
+    }
+
+    @Test
+    void lastBookingsOfItemListFallBackToArchive() {
+        List<Long> ids = bookingService.getLastAndNextBookings(List.of(ARCHIVED_ITEM, LIVE_ITEM), NOW).stream()
+                .map(BookingShortView::getId)
+                .sorted()
+                .collect(toList());
+
+        assertEquals(List.of(800_001L, 800_003L), ids);
+    }
+
+    @Test
+    void ownerSummaryCountsArchivedBookingsLikeArchivedLists() {
+        BookingSummaryDto summary = bookingService.getBookingsOwnerSummary(OWNER);
+
+        assertEquals(6L, summary.getAll());
+        assertEquals(6L, summary.getPast());
+        assertEquals(1L, summary.getWaiting());
+        assertEquals(1L, summary.getRejected());
+        assertEquals(summary.getAll(), archivedList("ALL"));
+        assertEquals(summary.getPast(), archivedList("PAST"));
+        assertEquals(summary.getWaiting(), archivedList("WAITING"));
+        assertEquals(summary.getRejected(), archivedList("REJECTED"));
+    }
+
+    private long archivedList(String state) {
+        return bookingService.getBookingsOwner(state, OWNER, 0, null, null, true).size();
+    }
+
+    private void archived(long id, long itemId, LocalDateTime end, String status) {
+        jdbc.update("insert into bookings_archive (id, start_date, end_date, item_id, booker_id, status) " +
+                "values (?, ?, ?, ?, ?, ?)", id, end.minusDays(1), end, itemId, BOOKER, status);
+    }
+}
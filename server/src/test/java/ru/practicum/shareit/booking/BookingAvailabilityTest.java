@@ -0,0 +1,120 @@
+package ru.practicum.shareit.booking;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.TimeIntervalDto;
+import ru.practicum.shareit.user.User;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingAvailabilityTest {
+    private static final LocalDateTime DAY = LocalDate.now().plusDays(1).atStartOfDay();
+
+    private final Item item = new Item(1L, "Дрель", "Простая дрель", true, new User(1L, "owner", "o@mail.ru"), null);
+    private final User booker = new User(2L, "booker", "b@mail.ru");
+
+    private BookingRepository repository;
+    private ArchivedBookingRepository archiveRepository;
+    private BookingAvailability availability;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(BookingRepository.class);
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(CacheConfig.ITEM_AVAILABILITY, Caffeine.newBuilder().build());
+        archiveRepository = mock(ArchivedBookingRepository.class);
+        availability = new BookingAvailability(repository, archiveRepository, cacheManager, Duration.ofDays(30),
+                Duration.ofDays(180));
+        when(repository.findByItemIdAndStatusInAndStartIsBeforeAndEndIsAfterOrderByStartAsc(eq(1L), anyCollection(),
+                any(), any())).thenReturn(List.of(
+                booking(hour(1), hour(3)),
+                booking(hour(2), hour(5)),
+                booking(hour(8), hour(10))));
+    }
+
+    @Test
+    void mergesOverlappingBookingsAndTrimsThemToPeriod() {
+        ItemAvailabilityDto result = availability.get(1L, hour(2), hour(9));
+
+        assertEquals(List.of(new TimeIntervalDto(hour(2), hour(5)), new TimeIntervalDto(hour(8), hour(9))),
+                result.getBusy());
+        assertEquals(List.of(new TimeIntervalDto(hour(5), hour(8))), result.getFree());
+    }
+
+    @Test
+    void servesPeriodsInsideWindowFromOneCachedEntry() {
+        availability.get(1L, hour(0), hour(4));
+        ItemAvailabilityDto result = availability.get(1L, hour(4), hour(12));
+
+        assertEquals(List.of(new TimeIntervalDto(hour(4), hour(5)), new TimeIntervalDto(hour(8), hour(10))),
+                result.getBusy());
+        verify(repository, times(1)).findByItemIdAndStatusInAndStartIsBeforeAndEndIsAfterOrderByStartAsc(eq(1L),
+                anyCollection(), any(), any());
+    }
+
+    @Test
+    void reloadsWindowAfterEviction() {
+        availability.get(1L, hour(0), hour(4));
+        availability.evict(1L);
+        availability.get(1L, hour(0), hour(4));
+
+        verify(repository, times(2)).findByItemIdAndStatusInAndStartIsBeforeAndEndIsAfterOrderByStartAsc(eq(1L),
+                anyCollection(), any(), any());
+    }
+
+    @Test
+    void queriesPeriodsOutsideWindowDirectly() {
+        availability.get(1L, hour(0), DAY.plusDays(60));
+        availability.get(1L, hour(0), DAY.plusDays(60));
+
+        verify(repository, times(2)).findByItemIdAndStatusInAndStartIsBeforeAndEndIsAfterOrderByStartAsc(eq(1L),
+                anyCollection(), eq(DAY.plusDays(60)), eq(hour(0)));
+    }
+
+    @Test
+    void includesArchivedBookingsForPeriodsBeyondRetention() {
+        LocalDateTime from = DAY.minusDays(400);
+        when(archiveRepository.findByItemIdAndStatusInAndStartIsBeforeAndEndIsAfterOrderByStartAsc(eq(1L),
+                anyCollection(), any(), any())).thenReturn(List.of(
+                new ArchivedBooking(5L, from.plusHours(1), from.plusHours(2), item, booker, Status.APPROVED)));
+
+        ItemAvailabilityDto result = availability.get(1L, from, hour(4));
+
+        assertEquals(new TimeIntervalDto(from.plusHours(1), from.plusHours(2)), result.getBusy().get(0));
+        assertEquals(new TimeIntervalDto(hour(1), hour(4)), result.getBusy().get(1));
+    }
+
+    @Test
+    void skipsArchiveForRecentPeriods() {
+        availability.get(1L, hour(0), hour(4));
+
+        verify(archiveRepository, never()).findByItemIdAndStatusInAndStartIsBeforeAndEndIsAfterOrderByStartAsc(
+                any(), anyCollection(), any(), any());
+    }
+
+    private Booking booking(LocalDateTime start, LocalDateTime end) {
+        return new Booking(null, start, end, item, booker, Status.APPROVED);
+    }
+
+    private static LocalDateTime hour(long hours) {
+        return DAY.plusHours(hours);
+    }
+}
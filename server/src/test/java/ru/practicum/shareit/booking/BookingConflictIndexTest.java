@@ -0,0 +1,144 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import ru.practicum.shareit.exception.BookingConflictException;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingConflictIndexTest {
+    private static final LocalDateTime BASE = LocalDateTime.now().plusDays(1).withNano(0);
+
+    private final AtomicLong ids = new AtomicLong();
+    private final UnaryOperator<Booking> saver = booking -> {
+        booking.setId(ids.incrementAndGet());
+        return booking;
+    };
+    private final Item item = new Item(1L, "Дрель", "Простая дрель", true, new User(1L, "owner", "o@mail.ru"), null);
+    private final User booker = new User(2L, "booker", "b@mail.ru");
+
+    private BookingRepository repository;
+    private BookingConflictIndex index;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(BookingRepository.class);
+        when(repository.findByItemIdAndStatusInAndEndIsAfter(anyLong(), anyCollection(), any()))
+                .thenReturn(List.of());
+        index = new BookingConflictIndex(repository, 100, Duration.ofMinutes(30), "local", "copy");
+    }
+
+    @Test
+    void savesBookingThatDoesNotOverlap() {
+        Booking saved = index.save(booking(0, 10), saver);
+        index.save(booking(10, 20), saver);
+
+        assertEquals(1L, saved.getId());
+        verify(repository, never()).existsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(anyLong(),
+                anyCollection(), any(), any());
+    }
+
+    @Test
+    void rejectsOverlapConfirmedByDatabase() {
+        index.save(booking(0, 10), saver);
+        when(repository.existsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(eq(1L), anyCollection(),
+                eq(hour(15)), eq(hour(5)))).thenReturn(true);
+
+        assertThrows(BookingConflictException.class, () -> index.save(booking(5, 15), saver));
+        assertEquals(1L, ids.get());
+    }
+
+    @Test
+    void rebuildsStaleTreeWhenDatabaseHasNoOverlap() {
+        index.save(booking(0, 10), saver);
+
+        Booking saved = index.save(booking(5, 15), saver);
+
+        assertEquals(2L, saved.getId());
+        verify(repository, times(2)).findByItemIdAndStatusInAndEndIsAfter(eq(1L), anyCollection(), any());
+    }
+
+    @Test
+    void warmsTreeFromRepository() {
+        Booking existing = booking(0, 10);
+        existing.setId(100L);
+        when(repository.findByItemIdAndStatusInAndEndIsAfter(eq(1L), anyCollection(), any()))
+                .thenReturn(List.of(existing));
+        when(repository.existsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(eq(1L), anyCollection(), any(),
+                any())).thenReturn(true);
+
+        assertThrows(BookingConflictException.class, () -> index.save(booking(2, 3), saver));
+    }
+
+    @Test
+    void translatesConstraintViolationIntoConflict() {
+        UnaryOperator<Booking> failing = booking -> {
+            throw new DataIntegrityViolationException("ex_bookings_item_period");
+        };
+
+        assertThrows(BookingConflictException.class, () -> index.save(booking(0, 10), failing));
+        index.save(booking(0, 10), saver);
+    }
+
+    @Test
+    void sharedLocksCheckDatabaseEvenWhenTreeIsEmpty() {
+        BookingConflictIndex sharedIndex = new BookingConflictIndex(repository, 100, Duration.ofMinutes(30),
+                "advisory", "copy");
+        when(repository.existsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(eq(1L), anyCollection(),
+                eq(hour(10)), eq(hour(0)))).thenReturn(true);
+
+        assertThrows(BookingConflictException.class, () -> sharedIndex.save(booking(0, 10), saver));
+        sharedIndex.save(booking(10, 20), saver);
+
+        verify(repository, times(2)).existsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(eq(1L),
+                anyCollection(), any(), any());
+    }
+
+    @Test
+    void partitionedBookingsCheckDatabaseEvenWhenTreeIsEmpty() {
+        BookingConflictIndex partitionedIndex = new BookingConflictIndex(repository, 100, Duration.ofMinutes(30),
+                "local", "partitions");
+        when(repository.existsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(eq(1L), anyCollection(),
+                eq(hour(10)), eq(hour(0)))).thenReturn(true);
+
+        assertThrows(BookingConflictException.class, () -> partitionedIndex.save(booking(0, 10), saver));
+    }
+
+    @Test
+    void releasedBookingFreesItsInterval() {
+        Booking first = index.save(booking(0, 10), saver);
+
+        index.release(first);
+        index.save(booking(0, 10), saver);
+
+        verify(repository, never()).existsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(anyLong(),
+                anyCollection(), any(), any());
+    }
+
+    private Booking booking(long startHour, long endHour) {
+        return new Booking(null, hour(startHour), hour(endHour), item, booker, Status.WAITING);
+    }
+
+    private static LocalDateTime hour(long hours) {
+        return BASE.plusHours(hours);
+    }
+}
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.exception.BookingConflictException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class BookingContentionTest {
+    private static final int THREADS = 16;
+    private static final long OWNER = 900_000L;
+    private static final long HOT_ITEM = 900_000L;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private final AtomicInteger successes = new AtomicInteger();
+    private final AtomicInteger conflicts = new AtomicInteger();
+
+    @BeforeEach
+    void seed() {
+        jdbc.update("delete from booking_outbox where item_id between ? and ?", HOT_ITEM, HOT_ITEM + THREADS);
+        jdbc.update("delete from bookings where item_id between ? and ?", HOT_ITEM, HOT_ITEM + THREADS);
+        jdbc.update("delete from items where id between ? and ?", HOT_ITEM, HOT_ITEM + THREADS);
+        jdbc.update("delete from users where id between ? and ?", OWNER, OWNER + THREADS);
+        for (long i = 0; i <= THREADS; i++) {
+            jdbc.update("insert into users (id, name, email) values (?, ?, ?)", OWNER + i, "user" + i,
+                    "contention" + i + "@mail.ru");
+            jdbc.update("insert into items (id, name, description, available, owner_id) values (?, ?, ?, true, ?)",
+                    HOT_ITEM + i, "Дрель " + i, "Простая дрель", OWNER);
+        }
+    }
+
+    @Test
+    void onlyOneOfConcurrentBookingsOfHotItemSucceeds() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        race(booker -> new BookingInputDto(HOT_ITEM, start.plusMinutes(booker), start.plusHours(2)));
+
+        assertEquals(1, successes.get());
+        assertEquals(THREADS - 1, conflicts.get());
+        assertEquals(1, count(HOT_ITEM));
+    }
+
+    @Test
+    void concurrentBookingsOfColdItemsDoNotConflict() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        race(booker -> new BookingInputDto(HOT_ITEM + booker, start, start.plusHours(2)));
+
+        assertEquals(THREADS, successes.get());
+        assertEquals(0, conflicts.get());
+        for (long i = 1; i <= THREADS; i++) {
+            assertEquals(1, count(HOT_ITEM + i));
+        }
+    }
+
+    private void race(LongFunction<BookingInputDto> factory) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(THREADS);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 1; i <= THREADS; i++) {
+                long booker = i;
+                futures.add(executor.submit(() -> {
+                    RequestContextHolder.setRequestAttributes(
+                            new ServletRequestAttributes(new MockHttpServletRequest()));
+                    try {
+                        ready.countDown();
+                        go.await();
+                        bookingService.create(factory.apply(booker), OWNER + booker);
+                        successes.incrementAndGet();
+                    } catch (BookingConflictException e) {
+                        conflicts.incrementAndGet();
+                    } finally {
+                        RequestContextHolder.resetRequestAttributes();
+                    }
+                    return null;
+                }));
+            }
+            ready.await();
+            go.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long count(long itemId) {
+        return jdbc.queryForObject("select count(*) from bookings where item_id = ?", Long.class, itemId);
+    }
+}
@@ -0,0 +1,122 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookingIntervalTreeTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private final BookingIntervalTree tree = new BookingIntervalTree();
+
+    @Test
+    void emptyTreeHasNoOverlaps() {
+        assertFalse(tree.overlaps(hour(0), hour(10)));
+    }
+
+    @Test
+    void detectsPartialAndNestedOverlaps() {
+        tree.insert(1L, hour(10), hour(20));
+
+        assertTrue(tree.overlaps(hour(5), hour(11)));
+        assertTrue(tree.overlaps(hour(19), hour(25)));
+        assertTrue(tree.overlaps(hour(12), hour(13)));
+        assertTrue(tree.overlaps(hour(0), hour(30)));
+    }
+
+    @Test
+    void touchingIntervalsDoNotOverlap() {
+        tree.insert(1L, hour(10), hour(20));
+
+        assertFalse(tree.overlaps(hour(0), hour(10)));
+        assertFalse(tree.overlaps(hour(20), hour(30)));
+    }
+
+    @Test
+    void findsOverlapHiddenInLeftSubtree() {
+        tree.insert(1L, hour(0), hour(100));
+        for (long i = 2; i < 50; i++) {
+            tree.insert(i, hour(100 + i * 3), hour(101 + i * 3));
+        }
+
+        assertTrue(tree.overlaps(hour(98), hour(99)));
+        assertFalse(tree.overlaps(hour(101), hour(102)));
+    }
+
+    @Test
+    void removedIntervalNoLongerOverlaps() {
+        tree.insert(1L, hour(10), hour(20));
+        tree.insert(2L, hour(30), hour(40));
+
+        tree.remove(1L, hour(10));
+
+        assertFalse(tree.overlaps(hour(12), hour(13)));
+        assertTrue(tree.overlaps(hour(35), hour(36)));
+    }
+
+    @Test
+    void removeKeepsIntervalsWithSameStartAndOtherId() {
+        tree.insert(1L, hour(10), hour(20));
+        tree.insert(2L, hour(10), hour(15));
+
+        tree.remove(2L, hour(10));
+
+        assertTrue(tree.overlaps(hour(18), hour(19)));
+    }
+
+    @Test
+    void removeEndedBeforeDropsOnlyFinishedIntervals() {
+        tree.insert(1L, hour(0), hour(5));
+        tree.insert(2L, hour(1), hour(50));
+        tree.insert(3L, hour(20), hour(30));
+
+        tree.removeEndedBefore(hour(10));
+
+        assertTrue(tree.overlaps(hour(3), hour(4)));
+        assertTrue(tree.overlaps(hour(25), hour(26)));
+    }
+
+    @Test
+    void clearRemovesEverything() {
+        tree.insert(1L, hour(10), hour(20));
+
+        tree.clear();
+
+        assertFalse(tree.overlaps(hour(0), hour(100)));
+    }
+
+    @Test
+    void matchesLinearScanOnRandomIntervals() {
+        Random random = new Random(42);
+        List<long[]> intervals = new ArrayList<>();
+        for (long id = 1; id <= 2_000; id++) {
+            long start = random.nextInt(100_000);
+            long end = start + 1 + random.nextInt(50);
+            intervals.add(new long[]{id, start, end});
+            tree.insert(id, hour(start), hour(end));
+        }
+        for (int i = 0; i < 500; i++) {
+            long[] removed = intervals.remove(random.nextInt(intervals.size()));
+            tree.remove(removed[0], hour(removed[1]));
+        }
+
+        for (int i = 0; i < 5_000; i++) {
+            long start = random.nextInt(100_000);
+            long end = start + 1 + random.nextInt(20);
+            boolean expected = intervals.stream()
+                    .anyMatch(interval -> interval[1] < end && interval[2] > start);
+            assertEquals(expected, tree.overlaps(hour(start), hour(end)), "[" + start + ", " + end + ")");
+        }
+    }
+
+    private static LocalDateTime hour(long hours) {
+        return BASE.plusHours(hours);
+    }
+}
@@ -0,0 +1,136 @@
+package ru.practicum.shareit.booking.event;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingEventDispatcherTest {
+    private final List<Boolean> transactionActive = new ArrayList<>(List.of(false));
+    private final List<BookingEvent> delivered = new ArrayList<>();
+
+    private BookingEventRepository repository;
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(BookingEventRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            transactionActive.set(0, true);
+            return new SimpleTransactionStatus();
+        });
+        doAnswer(invocation -> transactionActive.set(0, false)).when(transactionManager)
+                .commit(any(TransactionStatus.class));
+    }
+
+    @Test
+    void deletesDeliveredEvents() {
+        when(repository.findNextBatch(any(), any())).thenReturn(List.of(event(1L), event(2L)));
+
+        dispatcher(3, recordingListener()).dispatch();
+
+        assertEquals(2, delivered.size());
+        verify(repository).deleteAllByIdInBatch(List.of(1L, 2L));
+    }
+
+    @Test
+    void runsListenersOutsideTransaction() {
+        when(repository.findNextBatch(any(), any())).thenReturn(List.of(event(1L)));
+
+        dispatcher(3, event -> assertFalse(transactionActive.get(0))).dispatch();
+
+        verify(repository).deleteAllByIdInBatch(List.of(1L));
+    }
+
+    @Test
+    void claimsBatchUntilClaimTimeout() {
+        BookingEvent event = event(1L);
+        when(repository.findNextBatch(any(), any())).thenReturn(List.of(event));
+        LocalDateTime before = LocalDateTime.now();
+
+        dispatcher(3, claimed -> assertTrue(claimed.getNextAttemptAt().isAfter(before.plusMinutes(4))))
+                .dispatch();
+    }
+
+    @Test
+    void keepsFailedEventsAndSchedulesRetry() {
+        BookingEvent ok = event(1L);
+        BookingEvent failing = event(2L);
+        when(repository.findNextBatch(any(), any())).thenReturn(List.of(ok, failing));
+        LocalDateTime before = LocalDateTime.now();
+
+        dispatcher(3, event -> {
+            if (event.getId() == 2L) {
+                throw new IllegalStateException("Получатель недоступен");
+            }
+        }).dispatch();
+
+        verify(repository).deleteAllByIdInBatch(List.of(1L));
+        verify(repository).saveAll(List.of(failing));
+        assertEquals(1, failing.getAttempts());
+        assertTrue(failing.getNextAttemptAt().isAfter(before));
+        assertTrue(failing.getNextAttemptAt().isBefore(before.plusMinutes(1)));
+    }
+
+    @Test
+    void capsRetryBackoff() {
+        BookingEvent failing = event(1L);
+        failing.setAttempts(30);
+        when(repository.findNextBatch(any(), any())).thenReturn(List.of(failing));
+        LocalDateTime before = LocalDateTime.now();
+
+        dispatcher(3, event -> {
+            throw new IllegalStateException("Получатель недоступен");
+        }).dispatch();
+
+        verify(repository, never()).deleteAllByIdInBatch(anyList());
+        assertEquals(31, failing.getAttempts());
+        assertFalse(failing.getNextAttemptAt().isAfter(LocalDateTime.now().plusHours(1)));
+        assertTrue(failing.getNextAttemptAt().isAfter(before.plusMinutes(59)));
+    }
+
+    @Test
+    void claimsNextBatchWhileBatchesAreFull() {
+        when(repository.findNextBatch(any(), any()))
+                .thenReturn(List.of(event(1L), event(2L)))
+                .thenReturn(List.of(event(3L)));
+
+        dispatcher(2, recordingListener()).dispatch();
+
+        assertEquals(3, delivered.size());
+        verify(repository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(repository).deleteAllByIdInBatch(List.of(3L));
+    }
+
+    private BookingEventDispatcher dispatcher(int batchSize, BookingEventListener listener) {
+        return new BookingEventDispatcher(repository, List.of(listener), transactionManager, batchSize,
+                Duration.ofMinutes(5), Duration.ofHours(1));
+    }
+
+    private BookingEventListener recordingListener() {
+        return delivered::add;
+    }
+
+    private static BookingEvent event(Long id) {
+        LocalDateTime now = LocalDateTime.now();
+        return new BookingEvent(id, id, 1L, 1L, 2L, BookingEventType.CREATED, now, 0, now);
+    }
+}
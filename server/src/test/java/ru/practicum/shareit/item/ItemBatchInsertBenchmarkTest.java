@@ -0,0 +1,83 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.user.User;
+
+import javax.persistence.EntityManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Сравнивает скорость вставки вещей через Hibernate без пакетов и с пакетами по 50 строк.
+ * Запускается отдельно на PostgreSQL: mvn test -Pbenchmark, адрес базы задается через -Dspring.datasource.url.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+class ItemBatchInsertBenchmarkTest {
+    private static final int ITEMS = 100_000;
+    private static final int CHUNK = 500;
+    private static final long OWNER = 20_000_000L;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void seed() {
+        jdbc.update("insert into users (id, name, email) values (?, ?, ?)", OWNER, "owner", "batch@mail.ru");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbc.update("delete from items where owner_id = ?", OWNER);
+        jdbc.update("delete from users where id = ?", OWNER);
+    }
+
+    @Test
+    void comparesInsertThroughputByBatchSize() {
+        insert(1, CHUNK);
+        jdbc.update("delete from items where owner_id = ?", OWNER);
+        for (int batchSize : new int[]{1, 50}) {
+            long started = System.nanoTime();
+            insert(batchSize, ITEMS);
+            long millis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+            log.info("Размер пакета {}: {} вещей за {} мс, {} вещей/с", batchSize, ITEMS, millis,
+                    ITEMS * 1_000L / millis);
+            assertEquals(ITEMS, jdbc.queryForObject("select count(*) from items where owner_id = ?", Long.class,
+                    OWNER));
+            jdbc.update("delete from items where owner_id = ?", OWNER);
+        }
+    }
+
+    private void insert(int batchSize, int count) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        for (int from = 0; from < count; from += CHUNK) {
+            int size = Math.min(CHUNK, count - from);
+            transactionTemplate.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+                User owner = entityManager.getReference(User.class, OWNER);
+                for (int i = 0; i < size; i++) {
+                    entityManager.persist(new Item(null, "Дрель " + i, "Простая дрель", true, owner, null));
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.user.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class ItemImporterTest {
+    private final User owner = new User(1L, "owner", "owner@mail.ru");
+    private final List<Item> imported = new ArrayList<>();
+
+    private EntityManager entityManager;
+    private ItemImporter importer;
+
+    @BeforeEach
+    void setUp() {
+        entityManager = mock(EntityManager.class);
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new ParameterNamesModule(JsonCreator.Mode.DEFAULT));
+        importer = new ItemImporter(objectMapper, entityManager, mock(PlatformTransactionManager.class), 2, 2);
+    }
+
+    @Test
+    void importsNdjsonInBatches() throws IOException {
+        ItemImportResultDto result = run(ItemImportFormat.NDJSON,
+                "{\"name\":\"Дрель\",\"description\":\"Простая дрель\",\"available\":true}\n" +
+                        "\n" +
+                        "{\"name\":\"Пила\",\"description\":\"Ножовка\",\"available\":false,\"requestId\":7}\n" +
+                        "{\"name\":\"Молоток\",\"description\":\"Большой\",\"available\":true}\n");
+
+        assertEquals(3, result.getImported());
+        assertEquals(0, result.getFailed());
+        assertEquals(List.of("Дрель", "Пила", "Молоток"), names());
+        assertEquals(7L, imported.get(1).getRequestId());
+        assertFalse(imported.get(1).getAvailable());
+        verify(entityManager, times(2)).flush();
+    }
+
+    @Test
+    void reportsInvalidNdjsonRowsWithLineNumbers() throws IOException {
+        ItemImportResultDto result = run(ItemImportFormat.NDJSON,
+                "{\"name\":\"Дрель\",\"description\":\"Простая дрель\",\"available\":true}\n" +
+                        "{\"name\":\"Пила\"\n" +
+                        "{\"name\":\"\",\"description\":\"Ножовка\",\"available\":true}\n" +
+                        "{\"name\":\"Молоток\",\"description\":\"Большой\"}\n");
+
+        assertEquals(1, result.getImported());
+        assertEquals(3, result.getFailed());
+        assertEquals(List.of(2L, 3L), result.getErrors().stream().map(ItemImportErrorDto::getLine).collect(toList()));
+        assertTrue(result.getErrors().get(0).getMessage().startsWith("Некорректный JSON"));
+        assertEquals("Название вещи не может быть пустым!", result.getErrors().get(1).getMessage());
+    }
+
+    @Test
+    void parsesQuotedCsvColumnsInAnyOrder() throws IOException {
+        ItemImportResultDto result = run(ItemImportFormat.CSV,
+                "Available,Name,Description,RequestId\n" +
+                        "TRUE,\"Дрель, ударная\",\"Сверлит \"\"бетон\"\"\",\n" +
+                        "false,Пила,Ножовка,3\n");
+
+        assertEquals(2, result.getImported());
+        assertEquals("Дрель, ударная", imported.get(0).getName());
+        assertEquals("Сверлит \"бетон\"", imported.get(0).getDescription());
+        assertNull(imported.get(0).getRequestId());
+        assertEquals(3L, imported.get(1).getRequestId());
+    }
+
+    @Test
+    void rejectsInvalidCsvRows() throws IOException {
+        ItemImportResultDto result = run(ItemImportFormat.CSV,
+                "name,description,available,requestId\n" +
+                        "Дрель,Простая,yes,\n" +
+                        "Пила,Ножовка,true,abc\n" +
+                        "\"Молоток,Большой,true,\n");
+
+        assertEquals(0, result.getImported());
+        assertEquals(List.of("Некорректное значение доступности: yes", "Некорректный ID запроса: abc"),
+                result.getErrors().stream().map(ItemImportErrorDto::getMessage).collect(toList()));
+        assertEquals(3, result.getFailed());
+    }
+
+    @Test
+    void rejectsCsvHeaderWithoutRequiredColumns() {
+        assertThrows(ValidationException.class, () -> run(ItemImportFormat.CSV, "name,available\nДрель,true\n"));
+    }
+
+    @Test
+    void rejectsWholeBatchWhenInsertFails() throws IOException {
+        doThrow(new PersistenceException("duplicate key")).when(entityManager).flush();
+
+        ItemImportResultDto result = run(ItemImportFormat.NDJSON,
+                "{\"name\":\"Дрель\",\"description\":\"Простая дрель\",\"available\":true}\n");
+
+        assertEquals(0, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals("Не удалось сохранить вещь: duplicate key", result.getErrors().get(0).getMessage());
+        verify(entityManager).clear();
+        verify(entityManager).persist(any(Item.class));
+    }
+
+    private ItemImportResultDto run(ItemImportFormat format, String source) throws IOException {
+        return importer.importItems(owner, format, new StringReader(source), imported::add);
+    }
+
+    private List<String> names() {
+        return imported.stream().map(Item::getName).collect(toList());
+    }
+}
@@ -0,0 +1,142 @@
+package ru.practicum.shareit.item;
+
+import com.sun.management.ThreadMXBean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.item.dto.ItemNameView;
+import ru.practicum.shareit.user.User;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ItemNameTrieTest {
+    private final User owner = new User(1L, "owner", "owner@mail.ru");
+    private final List<ItemNameView> catalogue = new ArrayList<>();
+
+    private ItemRepository repository;
+    private ItemNameTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ItemRepository.class);
+        when(repository.streamNamesByAvailableTrue()).thenAnswer(invocation -> new ArrayList<>(catalogue).stream());
+        trie = new ItemNameTrie(repository, mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void suggestsNamesByPrefixIgnoringCase() {
+        name(1L, "Дрель ударная");
+        name(2L, "Дрель");
+        name(3L, "Домкрат");
+        name(4L, "Пила");
+        trie.build();
+
+        assertEquals(List.of("Дрель", "Дрель ударная"), trie.suggest("ДРЕ", 10));
+        assertEquals(List.of("Домкрат", "Дрель"), trie.suggest("д", 2));
+        assertEquals(List.of(), trie.suggest("молоток", 10));
+        verify(repository, never()).findByAvailableTrueAndNameStartsWithIgnoreCase(anyString(), any());
+    }
+
+    @Test
+    void keepsSharedNameUntilLastItemIsRemoved() {
+        name(1L, "Дрель");
+        name(2L, "Дрель");
+        trie.build();
+
+        trie.remove(1L);
+        assertEquals(List.of("Дрель"), trie.suggest("др", 10));
+        trie.remove(2L);
+        assertEquals(List.of(), trie.suggest("др", 10));
+    }
+
+    @Test
+    void renamesAndHidesUnavailableItems() {
+        name(1L, "Дрель");
+        trie.build();
+
+        trie.put(new Item(1L, "Перфоратор", "Мощный", true, owner, null));
+        assertEquals(List.of(), trie.suggest("др", 10));
+        assertEquals(List.of("Перфоратор"), trie.suggest("пер", 10));
+
+        trie.put(new Item(1L, "Перфоратор", "Мощный", false, owner, null));
+        assertEquals(List.of(), trie.suggest("пер", 10));
+    }
+
+    @Test
+    void putBeforeBuildDoesNotDuplicateName() {
+        name(1L, "Дрель");
+        trie.put(new Item(1L, "Дрель", "Простая", true, owner, null));
+        trie.build();
+
+        trie.remove(1L);
+
+        assertEquals(List.of(), trie.suggest("др", 10));
+    }
+
+    @Test
+    void mergesNamesAddedAfterBuild() {
+        name(1L, "Дрель");
+        name(2L, "Дрель ударная");
+        trie.build();
+
+        trie.put(new Item(3L, "Дрель аккумуляторная", "Мощная", true, owner, null));
+        trie.put(new Item(4L, "Домкрат", "Подкатной", true, owner, null));
+
+        assertEquals(List.of("Домкрат", "Дрель", "Дрель аккумуляторная"), trie.suggest("д", 3));
+        assertEquals(List.of("Дрель", "Дрель аккумуляторная", "Дрель ударная"), trie.suggest("дрель", 10));
+        assertEquals(List.of("Дрель ударная"), trie.suggest("дрель у", 10));
+    }
+
+    @Test
+    void suggestAllocatesOnlyTheResult() {
+        IntStream.range(0, 10_000).forEach(i -> name((long) i, "Дрель " + i));
+        trie.build();
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        for (int i = 0; i < 20_000; i++) {
+            trie.suggest("дрель 1", 10);
+        }
+
+        long allocated = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < 1_000; i++) {
+            trie.suggest("дрель 1", 10);
+        }
+        allocated = threads.getThreadAllocatedBytes(thread) - allocated;
+
+        assertTrue(allocated / 1_000 < 256, "Байт на подсказку: " + allocated / 1_000);
+    }
+
+    @Test
+    void fallsBackToDatabaseBeforeBuild() {
+        when(repository.findByAvailableTrueAndNameStartsWithIgnoreCase(anyString(), any()))
+                .thenReturn(List.of(new Item(1L, "Дрель", "Простая", true, owner, null)));
+
+        assertEquals(List.of("Дрель"), trie.suggest("др", 10));
+    }
+
+    private void name(Long id, String name) {
+        catalogue.add(new ItemNameView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        });
+    }
+}
@@ -0,0 +1,162 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Сравнивает поиск и подсказки на каталоге из миллиона вещей в PostgreSQL. Запускается отдельно:
+ * mvn test -Pbenchmark, адрес базы задается через -Dspring.datasource.url.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ItemSearchBenchmarkTest {
+    private static final int ITEMS = 1_000_000;
+    private static final long FIRST_ID = 10_000_000L;
+    private static final long OWNER = 10_000_000L;
+    private static final int BATCH = 10_000;
+    private static final String[] NOUNS = {"Дрель", "Пила", "Молоток", "Отвертка", "Шуруповерт", "Лестница",
+            "Палатка", "Велосипед", "Самокат", "Проектор", "Гитара", "Камера", "Рюкзак", "Спальник", "Удочка",
+            "Лодка", "Мангал", "Компрессор", "Перфоратор", "Болгарка"};
+    private static final String[] ADJECTIVES = {"простая", "ударная", "аккумуляторная", "сетевая", "складная",
+            "туристическая", "профессиональная", "детская", "легкая", "мощная"};
+    private static final String[] QUERIES = {"дрель", "аккумулятор", "проф", "складная палатка", "болгарка 39"};
+    private static final String LIKE_QUERY = "select i.id from items i " +
+            "where (lower(i.name) like lower(concat('%', ?, '%')) " +
+            " or lower(i.description) like lower(concat('%', ?, '%')))" +
+            " and i.available = true order by i.name, i.id limit 20";
+
+    @Value("${spring.sql.init.platform}")
+    private String platform;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private ItemRepository repository;
+
+    @Autowired
+    private ItemSearchIndex index;
+
+    @Autowired
+    private ItemNameTrie trie;
+
+    @BeforeAll
+    void seed() {
+        assertEquals("postgresql", platform, "Бенчмарк поиска запускается на PostgreSQL");
+        jdbc.update("insert into users (id, name, email) values (?, ?, ?)", OWNER, "owner", "benchmark@mail.ru");
+        List<Object[]> rows = new ArrayList<>(BATCH);
+        long started = System.nanoTime();
+        for (int i = 0; i < ITEMS; i++) {
+            String noun = NOUNS[i % NOUNS.length];
+            String adjective = ADJECTIVES[i / NOUNS.length % ADJECTIVES.length];
+            rows.add(new Object[]{FIRST_ID + i, noun + " " + (i % 1000), adjective + " " + noun.toLowerCase(),
+                    OWNER});
+            if (rows.size() == BATCH) {
+                insert(rows);
+            }
+        }
+        insert(rows);
+        jdbc.execute("analyze items");
+        log.info("Каталог из {} вещей заполнен за {} мс", ITEMS, millis(started));
+        started = System.nanoTime();
+        index.build();
+        log.info("Поисковый индекс построен за {} мс", millis(started));
+        started = System.nanoTime();
+        trie.build();
+        log.info("Индекс подсказок построен за {} мс", millis(started));
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbc.update("delete from items where owner_id = ?", OWNER);
+        jdbc.update("delete from users where id = ?", OWNER);
+    }
+
+    @Test
+    void searchByIndexAndDatabase() {
+        DatabaseItemSearch database = new DatabaseItemSearch(repository, platform);
+        for (String query : QUERIES) {
+            measure("индекс, по названию: " + query, 50, () -> index.search(query, 0, 20, false));
+            measure("индекс, по релевантности: " + query, 50, () -> index.search(query, 0, 20, true));
+            measure("база, по названию: " + query, 5, () -> database.search(query, 0, 20, false));
+            measure("база, по релевантности: " + query, 5, () -> database.search(query, 0, 20, true));
+        }
+    }
+
+    @Test
+    void trigramIndexServesDatabaseSearch() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        for (String query : QUERIES) {
+            String plan = String.join("\n", jdbc.queryForList("explain " + LIKE_QUERY.replace("?", "'" + query + "'"),
+                    String.class));
+            assertTrue(plan.contains("ix_items_name_trgm"), plan);
+            measure("база, LIKE без индекса: " + query, 3, () -> transactionTemplate.execute(status -> {
+                jdbc.execute("set local enable_bitmapscan = off");
+                jdbc.execute("set local enable_indexscan = off");
+                return like(query);
+            }));
+            measure("база, LIKE по GIN-индексу: " + query, 5, () -> like(query));
+        }
+    }
+
+    @Test
+    void suggestByTrieAndDatabase() {
+        for (String prefix : List.of("д", "дре", "болгарка 3", "шуруповерт 24")) {
+            measure("дерево, подсказка: " + prefix, 1_000, () -> trie.suggest(prefix, 10));
+            measure("база, подсказка: " + prefix, 5, () -> repository.findByAvailableTrueAndNameStartsWithIgnoreCase(
+                    prefix, PageRequest.of(0, 10)));
+        }
+    }
+
+    private List<Long> like(String query) {
+        return jdbc.queryForList(LIKE_QUERY, Long.class, query, query);
+    }
+
+    private void insert(List<Object[]> rows) {
+        jdbc.batchUpdate("insert into items (id, name, description, available, owner_id) values (?, ?, ?, true, ?)",
+                rows);
+        rows.clear();
+    }
+
+    private static void measure(String name, int iterations, Supplier<List<?>> query) {
+        assertFalse(query.get().isEmpty(), name);
+        long[] times = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long started = System.nanoTime();
+            query.get();
+            times[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(times);
+        log.info("{}: медиана {} мкс, p99 {} мкс", name, times[iterations / 2] / 1_000,
+                times[Math.min(iterations - 1, iterations * 99 / 100)] / 1_000);
+    }
+
+    private static long millis(long started) {
+        return (System.nanoTime() - started) / 1_000_000;
+    }
+}
@@ -0,0 +1,155 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.user.User;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ItemSearchIndexTest {
+    private final User owner = new User(1L, "owner", "owner@mail.ru");
+    private final Map<Long, Item> catalogue = new LinkedHashMap<>();
+
+    private ItemRepository repository;
+    private ItemSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ItemRepository.class);
+        when(repository.streamByAvailableTrue()).thenAnswer(invocation -> new ArrayList<>(catalogue.values()).stream()
+                .filter(Item::getAvailable));
+        when(repository.findAllById(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(catalogue::get).collect(toList());
+        });
+        when(repository.getItemsBySearchQuery(anyString(), any())).thenReturn(new SliceImpl<>(List.of()));
+        index = new ItemSearchIndex(repository, mock(EntityManager.class), mock(PlatformTransactionManager.class),
+                "h2");
+    }
+
+    @Test
+    void findsItemsBySubstringOrderedByName() {
+        item(1L, "Шуруповерт", "Аккумуляторная дрель");
+        item(2L, "Дрель", "Простая дрель");
+        item(3L, "Отвертка", "Крестовая");
+        index.build();
+
+        assertEquals(List.of(2L, 1L), ids(index.search("дрел", 0, 10, false)));
+        verify(repository, never()).getItemsBySearchQuery(anyString(), any());
+    }
+
+    @Test
+    void ranksItemsByBm25() {
+        item(1L, "Молоток", "Подходит для дрели");
+        item(2L, "Дрель", "Дрель ударная");
+        item(3L, "Дрель", "Простая");
+        index.build();
+
+        assertEquals(List.of(2L, 3L, 1L), ids(index.search("дрел", 0, 10, true)));
+    }
+
+    @Test
+    void pagesMatches() {
+        item(1L, "Дрель А", "дрель");
+        item(2L, "Дрель Б", "дрель");
+        item(3L, "Дрель В", "дрель");
+        index.build();
+
+        assertEquals(List.of(2L), ids(index.search("дрель", 1, 1, false)));
+    }
+
+    @Test
+    void updatesAndRemovesItems() {
+        item(1L, "Дрель", "Простая дрель");
+        index.build();
+
+        index.put(new Item(1L, "Пила", "Ножовка", true, owner, null));
+        assertEquals(List.of(), ids(index.search("дрель", 0, 10, false)));
+        catalogue.put(1L, new Item(1L, "Пила", "Ножовка", true, owner, null));
+        assertEquals(List.of(1L), ids(index.search("пила", 0, 10, false)));
+
+        index.remove(1L);
+        assertEquals(List.of(), ids(index.search("пила", 0, 10, false)));
+    }
+
+    @Test
+    void putBeforeBuildDoesNotDuplicateItem() {
+        item(1L, "Дрель", "Простая дрель");
+        index.put(catalogue.get(1L));
+        index.build();
+
+        assertEquals(List.of(1L), ids(index.search("дрель", 0, 10, false)));
+    }
+
+    @Test
+    void fallsBackToDatabaseBeforeBuild() {
+        item(1L, "Дрель", "Простая дрель");
+
+        index.search("дрель", 0, 10, false);
+
+        verify(repository).getItemsBySearchQuery(anyString(), any());
+    }
+
+    @Test
+    void servesShortTokensFromIndex() {
+        IntStream.rangeClosed(1, 1_001).forEach(i -> item((long) i, "Дрель" + i, "Простая"));
+        index.build();
+
+        assertEquals(List.of(1L, 10L, 100L), ids(index.search("д", 0, 3, false)));
+        assertEquals(List.of(1000L, 1001L), ids(index.search("д", 3, 2, false)));
+        assertEquals(1_001, index.search("пр", 0, null, true).size());
+        verify(repository, never()).getItemsBySearchQuery(anyString(), any());
+    }
+
+    @Test
+    void requiresEveryTrigramOfQuery() {
+        item(1L, "Палатка", "Складная туристическая");
+        item(2L, "Палатка складная", "Легкая");
+        item(3L, "Стул", "Складная палатка");
+        index.build();
+
+        assertEquals(List.of(3L), ids(index.search("складная палатка", 0, 10, false)));
+        assertEquals(List.of(2L), ids(index.search("палатка складная", 0, 10, true)));
+    }
+
+    @Test
+    void ordersItemsAddedAfterBuildByName() {
+        item(1L, "Дрель", "Простая");
+        item(2L, "Шуруповерт", "Аккумуляторная дрель");
+        index.build();
+
+        item(3L, "Болгарка", "Не дрель");
+        index.put(catalogue.get(3L));
+        item(1L, "Перфоратор", "Как дрель");
+        index.put(catalogue.get(1L));
+
+        assertEquals(List.of(3L, 1L, 2L), ids(index.search("дрель", 0, 10, false)));
+        assertEquals(List.of(3L), ids(index.search("дрель", 0, 1, false)));
+    }
+
+    private void item(Long id, String name, String description) {
+        catalogue.put(id, new Item(id, name, description, true, owner, null));
+    }
+
+    private static List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).collect(toList());
+    }
+}
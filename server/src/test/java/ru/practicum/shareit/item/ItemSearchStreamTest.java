@@ -0,0 +1,57 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class ItemSearchStreamTest {
+    private static final long OWNER = 700_000L;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void seed() {
+        jdbc.update("delete from items where owner_id = ?", OWNER);
+        jdbc.update("delete from users where id = ?", OWNER);
+        jdbc.update("insert into users (id, name, email) values (?, 'owner', 'stream-owner@mail.ru')", OWNER);
+        item(700_000L, "Молоток", "Бьет по зубилу");
+        item(700_001L, "Зубило", "Слесарное");
+        item(700_002L, "Набор: зубило и молоток", "Для мастерской");
+    }
+
+    @Test
+    void streamsMatchesInRequestedOrder() {
+        assertEquals(List.of(700_001L, 700_000L, 700_002L), stream("NAME"));
+        assertEquals(List.of(700_001L, 700_002L, 700_000L), stream("relevance"));
+    }
+
+    @Test
+    void rejectsUnknownSort() {
+        assertThrows(ValidationException.class, () -> stream("DATE"));
+    }
+
+    private List<Long> stream(String sort) {
+        List<Long> ids = new ArrayList<>();
+        itemService.streamItemsBySearchQuery("Зубил", 0, null, sort, item -> ids.add(item.getId()));
+        return ids;
+    }
+
+    private void item(long id, String name, String description) {
+        jdbc.update("insert into items (id, name, description, available, owner_id) values (?, ?, ?, true, ?)",
+                id, name, description, OWNER);
+    }
+}
@@ -0,0 +1,198 @@
+package ru.practicum.shareit.plan;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.requests.ItemRequestRepository;
+
+import javax.persistence.EntityManager;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "ru.practicum.shareit.plan.RecordingStatementInspector")
+class QueryPlanTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private static final String TIMESTAMP = "cast(? as timestamp)";
+    private static final PageRequest PAGE = PageRequest.of(0, 20);
+    private static final Set<Status> ACTIVE = Set.of(Status.WAITING, Status.APPROVED);
+
+    @Autowired
+    private BookingRepository bookings;
+
+    @Autowired
+    private ArchivedBookingRepository archive;
+
+    @Autowired
+    private ItemRepository items;
+
+    @Autowired
+    private CommentRepository comments;
+
+    @Autowired
+    private ItemRequestRepository requests;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private EntityManager em;
+
+    @BeforeEach
+    void seed() {
+        if (jdbc.queryForObject("select count(*) from users", Long.class) > 0) {
+            RecordingStatementInspector.drain();
+            return;
+        }
+        jdbc.update("insert into users (id, name, email) " +
+                "select x, 'user' || x, 'user' || x || '@mail.ru' from system_range(1, 2000)");
+        jdbc.update("insert into item_request (id, description, requestor_id, created) " +
+                "select x, 'request' || x, mod(x, 2000) + 1, dateadd('MINUTE', x, " + TIMESTAMP + ") " +
+                "from system_range(1, 5000)", NOW.minusYears(1));
+        jdbc.update("insert into items (id, name, description, available, owner_id, request_id) " +
+                "select x, 'item' || x, 'description' || x, mod(x, 7) > 0, mod(x, 2000) + 1, " +
+                "case when mod(x, 4) = 0 then mod(x, 5000) + 1 end from system_range(1, 20000)");
+        jdbc.update("insert into bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                "select x, dateadd('HOUR', x, " + TIMESTAMP + "), dateadd('HOUR', x + 2, " + TIMESTAMP + "), " +
+                "mod(x, 20000) + 1, mod(x * 7, 2000) + 1, case mod(x, 4) when 0 then 'WAITING' " +
+                "when 1 then 'APPROVED' when 2 then 'REJECTED' else 'CANCELED' end from system_range(1, 100000)",
+                NOW.minusYears(5), NOW.minusYears(5));
+        jdbc.update("insert into bookings_archive (id, start_date, end_date, item_id, booker_id, status) " +
+                "select 1000000 + x, dateadd('HOUR', x, " + TIMESTAMP + "), " +
+                "dateadd('HOUR', x + 2, " + TIMESTAMP + "), mod(x, 20000) + 1, mod(x * 7, 2000) + 1, 'APPROVED' " +
+                "from system_range(1, 50000)", NOW.minusYears(10), NOW.minusYears(10));
+        jdbc.update("insert into comments (id, text_comment, item_id, author_id, created) " +
+                "select x, 'comment' || x, mod(x, 20000) + 1, mod(x * 3, 2000) + 1, " +
+                "dateadd('MINUTE', x, " + TIMESTAMP + ") from system_range(1, 50000)", NOW.minusYears(1));
+        // ANALYZE фиксирует транзакцию, поэтому данные заполняются один раз на весь класс
+        jdbc.execute("analyze");
+        RecordingStatementInspector.drain();
+    }
+
+    @Test
+    void bookerListsUseBookerIndex() {
+        assertIndexed(() -> bookings.findByBookerId(10L, PAGE));
+        assertIndexed(() -> bookings.findCurrentByBookerId(10L, NOW, PAGE));
+        assertIndexed(() -> bookings.findPastByBookerId(10L, NOW, PAGE));
+        assertIndexed(() -> bookings.findFutureByBookerId(10L, NOW, PAGE));
+        assertIndexed(() -> bookings.findByBookerIdAndStatus(10L, Status.WAITING, PAGE));
+        assertIndexed(() -> bookings.findByBookerIdBeforeCursor(10L, NOW, 500L, PAGE));
+        assertIndexed(() -> bookings.findPastByBookerIdBeforeCursor(10L, NOW, NOW, 500L, PAGE));
+        assertIndexed(() -> {
+            try (Stream<?> stream = bookings.streamByBookerId(10L)) {
+                return stream.count();
+            }
+        });
+    }
+
+    @Test
+    void ownerListsReachBookingsThroughOwnerItems() {
+        assertIndexed(() -> bookings.findByItemOwnerId(10L, PAGE));
+        assertIndexed(() -> bookings.findCurrentByItemOwnerId(10L, NOW, PAGE));
+        assertIndexed(() -> bookings.findPastByItemOwnerId(10L, NOW, PAGE));
+        assertIndexed(() -> bookings.findFutureByItemOwnerId(10L, NOW, PAGE));
+        assertIndexed(() -> bookings.findByItemOwnerIdAndStatus(10L, Status.REJECTED, PAGE));
+        assertIndexed(() -> bookings.findByItemOwnerIdBeforeCursor(10L, NOW, 500L, PAGE));
+        assertIndexed(() -> bookings.getSummaryByItemOwnerId(10L, NOW, Status.WAITING, Status.REJECTED));
+    }
+
+    @Test
+    void archivedListsUseArchiveIndexes() {
+        assertIndexed(() -> archive.findByBookerId(10L, PAGE));
+        assertIndexed(() -> archive.findByItemOwnerId(10L, PAGE));
+        assertIndexed(() -> archive.findByBookerIdBeforeCursor(10L, NOW, 500L, PAGE));
+        assertIndexed(() -> archive.findByBookerIdAndStatus(10L, Status.WAITING, PAGE));
+        assertIndexed(() -> archive.findByItemOwnerIdAndStatusBeforeCursor(10L, Status.REJECTED, NOW, 500L, PAGE));
+        assertIndexed(() -> archive.findFirstByItemIdAndEndBeforeOrderByEndDesc(10L, NOW));
+        assertIndexed(() -> archive.findLastByItemIds(List.of(10L, 11L)));
+        assertIndexed(() -> archive.getSummaryByItemOwnerId(10L, Status.WAITING, Status.REJECTED));
+        assertIndexed(() -> archive.findByItemIdAndStatusInAndStartIsBeforeAndEndIsAfterOrderByStartAsc(10L, ACTIVE,
+                NOW, NOW.minusYears(11)));
+        assertIndexed(() -> archive.findFirstByItemIdAndBookerIdAndStatus(10L, 10L, Status.APPROVED));
+    }
+
+    @Test
+    void itemBookingLookupsUseItemIndexes() {
+        assertIndexed(() -> bookings.findFirstByItemIdAndEndBeforeOrderByEndDesc(10L, NOW));
+        assertIndexed(() -> bookings.findFirstByItemIdAndStartAfterOrderByStartAsc(10L, NOW));
+        assertIndexed(() -> bookings.findNextBoundaryByItemId(10L, NOW));
+        assertIndexed(() -> bookings.findByItemIdAndStatusInAndEndIsAfter(10L, ACTIVE, NOW));
+        assertIndexed(() -> bookings.findByItemIdAndStatusInAndStartIsBeforeAndEndIsAfterOrderByStartAsc(10L,
+                ACTIVE, NOW.plusDays(1), NOW));
+        assertIndexed(() -> bookings.existsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(10L, ACTIVE,
+                NOW.plusDays(1), NOW));
+        assertIndexed(() -> bookings.findFirstByItemIdAndBookerIdAndEndIsBeforeAndStatus(10L, 10L, NOW,
+                Status.APPROVED));
+        assertIndexed(() -> bookings.findLastAndNextByItemIds(List.of(10L, 11L, 12L), NOW));
+    }
+
+    @Test
+    void itemAndRequestLookupsUseIndexes() {
+        assertIndexed(() -> items.findByOwnerId(10L, PageRequest.of(0, 20, Sort.by("id"))));
+        assertIndexed(() -> items.findAllByRequestId(10L, Sort.by("id")));
+        assertIndexed(() -> items.findAllByRequestIdIn(List.of(10L, 11L), Sort.by("id")));
+        assertIndexed(() -> items.existsByIdAndOwnerId(10L, 10L));
+        assertIndexed(() -> requests.findAllByRequestorId(10L, Sort.by(Sort.Direction.DESC, "created")));
+        assertIndexed(() -> requests.findAllByRequestorIdNot(10L, PageRequest.of(0, 20,
+                Sort.by(Sort.Direction.DESC, "created"))));
+    }
+
+    @Test
+    void commentLookupsUseItemIndex() {
+        assertIndexed(() -> comments.findAllByItemId(10L, Sort.by(Sort.Direction.DESC, "created")));
+        assertIndexed(() -> comments.findViewsByItemId(10L, PAGE));
+        assertIndexed(() -> comments.findViewsByItemIdBeforeCursor(10L, NOW, 500L, PAGE));
+        assertIndexed(() -> comments.findLatestViewsByItemIdIn(List.of(10L, 11L), 10));
+        assertIndexed(() -> comments.countByItemIdIn(List.of(10L, 11L)));
+    }
+
+    private void assertIndexed(Supplier<?> call) {
+        call.get();
+        List<String> statements = RecordingStatementInspector.drain();
+        assertFalse(statements.isEmpty(), "Запрос не был выполнен");
+        for (String sql : statements) {
+            String plan = explain(sql);
+            assertFalse(plan.contains("tableScan"), () -> "Полный просмотр таблицы:\n" + sql + "\n" + plan);
+            assertTrue(plan.contains("PUBLIC.IX_") || plan.contains("PRIMARY_KEY") || plan.contains("_INDEX_"),
+                    () -> "Индекс не найден:\n" + plan);
+        }
+    }
+
+    private String explain(String sql) {
+        return em.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setObject(i, null);
+                }
+                List<String> rows = new ArrayList<>();
+                try (ResultSet result = statement.executeQuery()) {
+                    while (result.next()) {
+                        rows.add(result.getString(1));
+                    }
+                }
+                return String.join("\n", rows);
+            }
+        });
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.plan;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class RecordingStatementInspector implements StatementInspector {
+    private static final List<String> STATEMENTS = new ArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        synchronized (STATEMENTS) {
+            STATEMENTS.add(sql);
+        }
+        return sql;
+    }
+
+    static List<String> drain() {
+        synchronized (STATEMENTS) {
+            List<String> statements = new ArrayList<>(STATEMENTS);
+            STATEMENTS.clear();
+            return statements;
+        }
+    }
+}
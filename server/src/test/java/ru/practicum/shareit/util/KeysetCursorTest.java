@@ -0,0 +1,57 @@
+package ru.practicum.shareit.util;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeysetCursorTest {
+    @Test
+    void decodesWhatItEncodes() {
+        LocalDateTime moment = LocalDateTime.of(2030, 5, 17, 10, 15, 30, 123_456_000);
+
+        KeysetCursor cursor = KeysetCursor.decode(new KeysetCursor(moment, 42L).encode());
+
+        assertEquals(moment, cursor.getMoment());
+        assertEquals(42L, cursor.getId());
+    }
+
+    @Test
+    void encodesUrlSafeWithoutPadding() {
+        String encoded = new KeysetCursor(LocalDateTime.of(2030, 1, 1, 0, 0), 7L).encode();
+
+        assertFalse(encoded.contains("="));
+        assertFalse(encoded.contains("+"));
+        assertFalse(encoded.contains("/"));
+    }
+
+    @Test
+    void rejectsNonBase64Cursor() {
+        assertThrows(ValidationException.class, () -> KeysetCursor.decode("не курсор!"));
+    }
+
+    @Test
+    void rejectsCursorWithoutSeparator() {
+        assertThrows(ValidationException.class, () -> KeysetCursor.decode(encode("2030-01-01T00:00")));
+    }
+
+    @Test
+    void rejectsCursorWithInvalidMoment() {
+        assertThrows(ValidationException.class, () -> KeysetCursor.decode(encode("вчера|1")));
+    }
+
+    @Test
+    void rejectsCursorWithInvalidId() {
+        assertThrows(ValidationException.class, () -> KeysetCursor.decode(encode("2030-01-01T00:00|abc")));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.exception.ValidationException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffsetLimitPageableTest {
+    private static final Sort SORT = Sort.by(Sort.Direction.DESC, "start");
+
+    @Test
+    void keepsOffsetThatIsNotMultipleOfSize() {
+        Pageable pageable = OffsetLimitPageable.of(3, 2, SORT);
+
+        assertEquals(3, pageable.getOffset());
+        assertEquals(2, pageable.getPageSize());
+        assertEquals(SORT, pageable.getSort());
+    }
+
+    @Test
+    void usesDefaultLimitWithoutSize() {
+        Pageable pageable = OffsetLimitPageable.of(5, null, SORT);
+
+        assertEquals(5, pageable.getOffset());
+        assertEquals(OffsetLimitPageable.DEFAULT_LIMIT, pageable.getPageSize());
+    }
+
+    @Test
+    void nextContinuesFromEndOfWindow() {
+        Pageable next = OffsetLimitPageable.of(3, 2, SORT).next();
+
+        assertEquals(5, next.getOffset());
+        assertEquals(2, next.getPageSize());
+        assertEquals(SORT, next.getSort());
+    }
+
+    @Test
+    void previousNeverGoesBelowZero() {
+        Pageable pageable = OffsetLimitPageable.of(3, 5, SORT);
+
+        assertTrue(pageable.hasPrevious());
+        assertEquals(0, pageable.previousOrFirst().getOffset());
+        assertFalse(pageable.first().hasPrevious());
+        assertEquals(0, pageable.first().getOffset());
+    }
+
+    @Test
+    void withPageMultipliesBySize() {
+        Pageable pageable = OffsetLimitPageable.of(3, 4, SORT).withPage(2);
+
+        assertEquals(8, pageable.getOffset());
+        assertEquals(2, pageable.getPageNumber());
+    }
+
+    @Test
+    void rejectsNegativeOffset() {
+        assertThrows(ValidationException.class, () -> OffsetLimitPageable.of(-1, 10, SORT));
+    }
+
+    @Test
+    void rejectsNegativeOrZeroSize() {
+        assertThrows(ValidationException.class, () -> OffsetLimitPageable.of(0, -1, SORT));
+        assertThrows(ValidationException.class, () -> OffsetLimitPageable.of(0, 0, SORT));
+    }
+
+    @Test
+    void equalWindowsAreEqual() {
+        assertEquals(OffsetLimitPageable.of(3, 2, SORT), OffsetLimitPageable.of(3, 2, SORT));
+        assertEquals(OffsetLimitPageable.of(3, 2, SORT).hashCode(), OffsetLimitPageable.of(3, 2, SORT).hashCode());
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.util;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamBatchesTest {
+    @Test
+    void splitsStreamIntoFixedSizeBatches() {
+        List<List<Integer>> batches = new ArrayList<>();
+
+        StreamBatches.forEachBatch(numbers(StreamBatches.BATCH_SIZE * 2 + 7), 0, null,
+                batch -> batches.add(new ArrayList<>(batch)));
+
+        assertEquals(3, batches.size());
+        assertEquals(StreamBatches.BATCH_SIZE, batches.get(0).size());
+        assertEquals(StreamBatches.BATCH_SIZE, batches.get(1).size());
+        assertEquals(7, batches.get(2).size());
+        assertEquals(StreamBatches.BATCH_SIZE, batches.get(1).get(0));
+    }
+
+    @Test
+    void appliesOffsetAndLimit() {
+        List<Integer> seen = new ArrayList<>();
+
+        StreamBatches.forEachBatch(numbers(100), 10, 5, seen::addAll);
+
+        assertEquals(List.of(10, 11, 12, 13, 14), seen);
+    }
+
+    @Test
+    void emptyStreamProducesNoBatches() {
+        List<List<Integer>> batches = new ArrayList<>();
+
+        StreamBatches.forEachBatch(Stream.<Integer>empty(), 0, null, batches::add);
+
+        assertTrue(batches.isEmpty());
+    }
+
+    @Test
+    void rejectsInvalidWindow() {
+        assertThrows(ValidationException.class, () -> StreamBatches.forEachBatch(numbers(1), -1, null, batch -> {
+        }));
+    }
+
+    private static Stream<Integer> numbers(int count) {
+        return IntStream.range(0, count).boxed().collect(Collectors.toList()).stream();
+    }
+}